@@ -0,0 +1,140 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Page;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Asynchronous facade over a repository that runs each operation on an executor in its own transaction, so that
+ * independent queries can overlap instead of blocking the calling thread one after another.
+ * <p>
+ * Each operation opens a new session, creates a repository instance bound to it with the given factory, runs
+ * the operation in a transaction and closes the session. The number of operations that run at the same time is
+ * capped with a semaphore so that the connection pool is not exhausted; operations over the cap wait on their
+ * executor thread. Example with the generated repository implementation:
+ * <pre>{@code
+ * AsyncRepository<Book, Long, BookRepository> books =
+ *         new AsyncRepository<>(entityManagerFactory, BookRepository_::new, executor, 10);
+ *
+ * CompletableFuture<Book> book = books.findBy(id);
+ * CompletableFuture<List<Book>> page = books.findAll(Page.first(20));
+ * }</pre>
+ * On Java 21+, pass {@code Executors.newVirtualThreadPerTaskExecutor()} as the executor so that waiting for
+ * connections and JDBC results does not block platform threads.
+ *
+ * @param <E>  Entity type.
+ * @param <PK> Primary key type.
+ * @param <R>  Repository type.
+ */
+public class AsyncRepository<E, PK extends Serializable, R extends EntityRepository<E, PK>> {
+
+    private final SessionFactory sessionFactory;
+    private final Function<EntityManager, R> repositoryFactory;
+    private final Executor executor;
+    private final Semaphore permits;
+
+    /**
+     * @param entityManagerFactory Factory of the entity managers of the operations.
+     * @param repositoryFactory    Creates a repository bound to the given entity manager, usually the constructor
+     *                             of the generated repository implementation.
+     * @param executor             Executor that runs the operations.
+     * @param maxConcurrency       Maximum number of operations that run at the same time, should not exceed the
+     *                             size of the connection pool.
+     */
+    public AsyncRepository(EntityManagerFactory entityManagerFactory,
+                           Function<EntityManager, R> repositoryFactory,
+                           Executor executor, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive, got " + maxConcurrency);
+        }
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.repositoryFactory = Objects.requireNonNull(repositoryFactory);
+        this.executor = Objects.requireNonNull(executor);
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Runs the given work with a repository bound to a new session in a transaction on the executor.
+     * Returned entities are detached.
+     *
+     * @param work Work that uses the repository.
+     * @param <T>  Result type.
+     * @return Future of the result of the work.
+     */
+    public <T> CompletableFuture<T> supply(Function<R, T> work) {
+        Objects.requireNonNull(work);
+        return CompletableFuture.supplyAsync(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                return sessionFactory.fromTransaction(session -> work.apply(repositoryFactory.apply(session)));
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Asynchronous {@link ExtendedEntityRepository#findBy(Serializable)}.
+     *
+     * @param id Entity ID field, DB primary key.
+     * @return Future of the entity or null if it does not exist.
+     * @throws UnsupportedOperationException if the repository does not extend {@link ExtendedEntityRepository}.
+     */
+    public CompletableFuture<E> findBy(PK id) {
+        return supply(repository -> extended(repository).findBy(id));
+    }
+
+    /**
+     * Asynchronous {@link EntityRepository#findAll(Page)}.
+     *
+     * @param page The pagination specification.
+     * @return Future of the list of entities.
+     */
+    public CompletableFuture<List<E>> findAll(Page page) {
+        return supply(repository -> repository.findAll(page));
+    }
+
+    /**
+     * Asynchronous {@link ExtendedEntityRepository#count()}.
+     *
+     * @return Future of the counter.
+     * @throws UnsupportedOperationException if the repository does not extend {@link ExtendedEntityRepository}.
+     */
+    public CompletableFuture<Long> count() {
+        return supply(repository -> extended(repository).count());
+    }
+
+    /**
+     * Asynchronous {@link EntityRepository#save(Object)}, committed when the future completes.
+     *
+     * @param entity Entity to save.
+     * @return Future of the saved entity.
+     */
+    public CompletableFuture<E> save(E entity) {
+        return supply(repository -> repository.save(entity));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ExtendedEntityRepository<E, PK> extended(R repository) {
+        if (!(repository instanceof ExtendedEntityRepository)) {
+            throw new UnsupportedOperationException(repository.getClass().getName()
+                    + " does not extend ExtendedEntityRepository");
+        }
+        return (ExtendedEntityRepository<E, PK>) repository;
+    }
+
+}
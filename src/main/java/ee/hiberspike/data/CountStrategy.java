@@ -0,0 +1,32 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data;
+
+/**
+ * Strategy of {@link ExtendedEntityRepository#count()}, selected per repository by overriding
+ * {@link ExtendedEntityRepository#getCountStrategy()}.
+ */
+public enum CountStrategy {
+
+    /**
+     * Count rows with {@code select count(*)} on every call.
+     */
+    EXACT,
+
+    /**
+     * Count rows with {@code select count(*)} and cache the result per repository for
+     * {@link ExtendedEntityRepository#getCountCacheTimeToLive()}. The cached count is shared by all
+     * transactions and may be stale for at most the time-to-live.
+     */
+    CACHED,
+
+    /**
+     * Read the row count estimate from database statistics, {@code INFORMATION_SCHEMA.TABLES.ROW_COUNT_ESTIMATE}
+     * on H2 and {@code pg_class.reltuples} on PostgreSQL. Falls back to {@link #EXACT} on other databases and
+     * when no statistics are available.
+     */
+    ESTIMATED
+}
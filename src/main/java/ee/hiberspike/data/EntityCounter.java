@@ -0,0 +1,124 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Implements the {@link CountStrategy} variants of {@link ExtendedEntityRepository#count()}.
+ */
+final class EntityCounter {
+
+    private static final String H2_ESTIMATE =
+            "select ROW_COUNT_ESTIMATE from INFORMATION_SCHEMA.TABLES"
+                    + " where upper(TABLE_SCHEMA) = upper(?1) and upper(TABLE_NAME) = upper(?2)";
+
+    private static final String H2_ESTIMATE_IN_CURRENT_SCHEMA =
+            "select ROW_COUNT_ESTIMATE from INFORMATION_SCHEMA.TABLES"
+                    + " where TABLE_SCHEMA = CURRENT_SCHEMA and upper(TABLE_NAME) = upper(?1)";
+
+    private static final String POSTGRESQL_ESTIMATE =
+            "select cast(reltuples as bigint) from pg_class where oid = to_regclass(?1)";
+
+    // keyed by repository class, as the time-to-live is configured per repository
+    private static final ConcurrentMap<Class<?>, CachedCount> CACHED_COUNTS = new ConcurrentHashMap<>();
+
+    private EntityCounter() {
+    }
+
+    static Long count(EntityManager entityManager, Class<?> repositoryClass, Class<?> entityClass,
+                      CountStrategy strategy, Duration timeToLive) {
+        switch (strategy) {
+            case CACHED:
+                return cachedCount(entityManager, repositoryClass, entityClass, timeToLive);
+            case ESTIMATED:
+                Long estimate = estimatedCount(entityManager, entityClass);
+                return estimate != null ? estimate : exactCount(entityManager, entityClass);
+            default:
+                return exactCount(entityManager, entityClass);
+        }
+    }
+
+    /**
+     * Counts with an HQL query string that is the same for every call, so that Hibernate reuses the
+     * interpreted query from its query plan cache instead of building a new criteria tree each time.
+     */
+    static Long exactCount(EntityManager entityManager, Class<?> entityClass) {
+        EntityIdentifier identifier = EntityIdentifier.of(entityManager, entityClass);
+        return entityManager.createQuery(identifier.getCountQuery(), Long.class).getSingleResult();
+    }
+
+    private static Long cachedCount(EntityManager entityManager, Class<?> repositoryClass, Class<?> entityClass,
+                                    Duration timeToLive) {
+        long now = System.nanoTime();
+        CachedCount cached = CACHED_COUNTS.get(repositoryClass);
+        if (cached != null && now - cached.expiresAt < 0) {
+            return cached.count;
+        }
+        Long count = exactCount(entityManager, entityClass);
+        CACHED_COUNTS.put(repositoryClass, new CachedCount(count, now + timeToLive.toNanos()));
+        return count;
+    }
+
+    private static Long estimatedCount(EntityManager entityManager, Class<?> entityClass) {
+        SessionFactoryImplementor sessionFactory = entityManager.unwrap(SessionImplementor.class).getFactory();
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        if (!(persister instanceof AbstractEntityPersister)) {
+            return null;
+        }
+        String tableName = ((AbstractEntityPersister) persister).getRootTableName();
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        Query estimateQuery;
+        if (dialect instanceof H2Dialect) {
+            // the root table name is [[catalog.]schema.]table
+            String[] parts = tableName.split("\\.");
+            if (parts.length == 1) {
+                estimateQuery = entityManager.createNativeQuery(H2_ESTIMATE_IN_CURRENT_SCHEMA)
+                        .setParameter(1, parts[0]);
+            } else {
+                estimateQuery = entityManager.createNativeQuery(H2_ESTIMATE)
+                        .setParameter(1, parts[parts.length - 2])
+                        .setParameter(2, parts[parts.length - 1]);
+            }
+        } else if (dialect instanceof PostgreSQLDialect) {
+            estimateQuery = entityManager.createNativeQuery(POSTGRESQL_ESTIMATE)
+                    .setParameter(1, tableName);
+        } else {
+            return null;
+        }
+        List<?> result = estimateQuery.getResultList();
+        if (result.isEmpty() || !(result.get(0) instanceof Number)) {
+            return null;
+        }
+        long estimate = ((Number) result.get(0)).longValue();
+        // PostgreSQL reports -1 for tables that have never been analyzed
+        return estimate >= 0 ? estimate : null;
+    }
+
+    private static final class CachedCount {
+        private final Long count;
+        private final long expiresAt;
+
+        private CachedCount(Long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Identifier metadata of an entity class, resolved once from the metamodel and cached per entity class.
+ * <p>
+ * Reads the identifier with a {@link MethodHandle} instead of going through
+ * {@link jakarta.persistence.PersistenceUnitUtil#getIdentifier(Object)} on every call. Proxies are asked for their
+ * identifier directly and composite identifiers fall back to {@code PersistenceUnitUtil}.
+ */
+final class EntityIdentifier {
+
+    private static final ConcurrentMap<Class<?>, EntityIdentifier> REGISTRY = new ConcurrentHashMap<>();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final String entityName;
+    private final String countQuery;
+    private final String attributeName;
+    private final Class<?> javaType;
+    private final boolean primitive;
+    private final boolean integral;
+    private final MethodHandle getter;
+
+    private EntityIdentifier(String entityName, String attributeName, Class<?> javaType, MethodHandle getter) {
+        this.entityName = entityName;
+        this.countQuery = "select count(*) from " + entityName;
+        this.attributeName = attributeName;
+        this.javaType = javaType;
+        this.primitive = javaType != null && javaType.isPrimitive();
+        this.integral = javaType == long.class || javaType == Long.class || javaType == int.class
+                || javaType == Integer.class || javaType == short.class || javaType == Short.class
+                || javaType == byte.class || javaType == Byte.class || javaType == BigInteger.class;
+        this.getter = getter;
+    }
+
+    /**
+     * Returns the cached identifier metadata of the given entity class, resolving it on first use.
+     *
+     * @param entityManager Entity manager used for resolving the metamodel on first use.
+     * @param entityClass   The entity class.
+     * @return Identifier metadata.
+     */
+    static EntityIdentifier of(EntityManager entityManager, Class<?> entityClass) {
+        EntityIdentifier identifier = REGISTRY.get(entityClass);
+        if (identifier == null) {
+            identifier = REGISTRY.computeIfAbsent(entityClass, c -> resolve(entityManager, c));
+        }
+        return identifier;
+    }
+
+    /**
+     * Returns the identifier of the given entity, see {@link EntityRepository#getPrimaryKey(Object)}.
+     */
+    static Object getIdentifier(EntityManager entityManager, Object entity) {
+        if (entity instanceof HibernateProxy) {
+            return ((HibernateProxy) entity).getHibernateLazyInitializer().getIdentifier();
+        }
+        return of(entityManager, entity.getClass()).get(entityManager, entity);
+    }
+
+    Object get(EntityManager entityManager, Object entity) {
+        if (getter == null) {
+            return entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+        }
+        try {
+            return (Object) getter.invokeExact(entity);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to read identifier of " + entity.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * @return Entity name for use in queries.
+     */
+    String getEntityName() {
+        return entityName;
+    }
+
+    /**
+     * @return HQL query that counts all entities.
+     */
+    String getCountQuery() {
+        return countQuery;
+    }
+
+    /**
+     * @return Name of the identifier attribute for use in queries.
+     * @throws UnsupportedOperationException if the entity has a composite identifier.
+     */
+    String requireAttributeName() {
+        if (attributeName == null) {
+            throw new UnsupportedOperationException("Entity " + entityName + " has a composite identifier");
+        }
+        return attributeName;
+    }
+
+    /**
+     * @return Java type of the identifier attribute or null if the entity has a composite identifier.
+     */
+    Class<?> getJavaType() {
+        return javaType;
+    }
+
+    /**
+     * @return True if the identifier attribute has an integral type, that is {@code long}, {@code int},
+     * {@code short}, {@code byte}, their wrappers or {@link BigInteger}.
+     */
+    boolean isIntegral() {
+        return integral;
+    }
+
+    /**
+     * Returns true if the identifier denotes a new entity, that is it is null or, for primitive identifier
+     * attributes that cannot be null, zero.
+     *
+     * @param id Identifier of an entity of this class.
+     * @return True if the entity has not been saved.
+     */
+    boolean isUnsaved(Object id) {
+        return id == null || (primitive && id instanceof Number && ((Number) id).longValue() == 0L);
+    }
+
+    private static EntityIdentifier resolve(EntityManager entityManager, Class<?> entityClass) {
+        EntityType<?> entityType = entityManager.getMetamodel().entity(entityClass);
+        if (entityType.hasSingleIdAttribute()) {
+            for (SingularAttribute<?, ?> attribute : entityType.getSingularAttributes()) {
+                if (attribute.isId()) {
+                    return new EntityIdentifier(entityType.getName(), attribute.getName(), attribute.getJavaType(),
+                            getterFor(attribute.getJavaMember()));
+                }
+            }
+        }
+        return new EntityIdentifier(entityType.getName(), null, null, null);
+    }
+
+    private static MethodHandle getterFor(Member member) {
+        try {
+            MethodHandle handle;
+            if (member instanceof Field && ((Field) member).trySetAccessible()) {
+                handle = MethodHandles.lookup().unreflectGetter((Field) member);
+            } else if (member instanceof Method && ((Method) member).trySetAccessible()) {
+                handle = MethodHandles.lookup().unreflect((Method) member);
+            } else {
+                return null;
+            }
+            return handle.asType(GETTER_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+}
@@ -7,12 +7,26 @@
 package ee.hiberspike.data;
 
 import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.annotations.processing.Find;
+import org.hibernate.proxy.HibernateProxy;
 import org.hibernate.query.Page;
 
 import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Base Repository interface. All non-default methods are implemented by Jakarta Data Repository code generation.
@@ -20,12 +34,19 @@ import java.util.Objects;
  * Based on org.apache.deltaspike.data.api.EntityRepository and org.apache.deltaspike.data.impl.handler.EntityRepositoryHandler.
  * <p>
  * All modifying operations require an active transaction.
+ * <p>
+ * The save, remove, refresh and flush operations emit {@link RepositoryOperationEvent}s to Java Flight Recorder.
  *
  * @param <E>  Entity type.
  * @param <PK> Primary key type.
  */
 public interface EntityRepository<E, PK extends Serializable> {
 
+    /**
+     * JDBC batch size and flush/clear chunk size used by {@link #saveAll(Iterable)}.
+     */
+    int DEFAULT_BATCH_SIZE = 50;
+
     /**
      * Convenience access to {@link EntityManager}.
      * <p>
@@ -65,10 +86,14 @@ public interface EntityRepository<E, PK extends Serializable> {
 
     /**
      * Persist (new entity) or merge the given entity. The distinction on calling either
-     * method is done based on the primary key field being null or not.
+     * method is done based on the primary key field being null or not, or zero for primitive primary keys.
      * If this results in wrong behavior for a specific case, consider using the
      * {@code entityManager()} directly, which offers both
      * {@code persist} and {@code merge}.
+     * <p>
+     * Checks the size of the persistence context with the {@link #getPersistenceContextGuard()} before persisting or
+     * merging if the repository has one, so that the returned entity is managed even if the guard clears the
+     * persistence context.
      *
      * @param entity Entity to save.
      * @return Returns the modified entity.
@@ -78,13 +103,148 @@ public interface EntityRepository<E, PK extends Serializable> {
         if (entityManager().contains(entity)) {
             return entity;
         }
-        PK primaryKey = getPrimaryKey(entity);
-        if (primaryKey == null ||
-                (primaryKey instanceof Number && ((Number) primaryKey).longValue() == 0L)) {
+        PersistenceContextGuard guard = getPersistenceContextGuard();
+        if (guard != null) {
+            guard.check(entityManager());
+        }
+        RepositoryOperationEvent event = RepositoryOperationEvent.start();
+        E savedEntity;
+        if (EntityIdentifier.of(entityManager(), Hibernate.getClassLazy(entity)).isUnsaved(getPrimaryKey(entity))) {
             entityManager().persist(entity);
-            return entity;
+            savedEntity = entity;
+            event.end(Hibernate.getClassLazy(entity), "save", "persist", 1);
+        } else {
+            savedEntity = entityManager().merge(entity);
+            event.end(Hibernate.getClassLazy(entity), "save", "merge", 1);
+        }
+        return savedEntity;
+    }
+
+    /**
+     * {@link #save(Object)}s all given entities and flushes the persistence context afterward.
+     * <p>
+     * JDBC batching is enabled for the session with {@link #DEFAULT_BATCH_SIZE} for the duration of the call, so that
+     * the statements are sent to the database in batches during the flush. Inserts are only batched if the entity
+     * does not use {@code IDENTITY} primary key generation. To group inserts and updates by entity type, enable
+     * {@code hibernate.order_inserts} and {@code hibernate.order_updates} in the persistence unit configuration as
+     * statement ordering cannot be changed per session.
+     * <p>
+     * If the repository has a {@link PersistenceContextGuard} in {@link PersistenceContextGuard.Mode#FLUSH_AND_CLEAR}
+     * mode, a later save may clear the persistence context and detach the entities returned for earlier ones.
+     *
+     * @param entities Entities to save.
+     * @return Returns the modified entities in iteration order.
+     */
+    default List<E> saveAll(Iterable<E> entities) {
+        Objects.requireNonNull(entities);
+        Session session = entityManager().unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(DEFAULT_BATCH_SIZE);
+        try {
+            List<E> savedEntities = new ArrayList<>();
+            for (E entity : entities) {
+                savedEntities.add(save(entity));
+            }
+            flush();
+            return savedEntities;
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
+    /**
+     * {@link #save(Object)}s all entities of the given stream, flushing and clearing the persistence context after
+     * every {@code chunkSize} entities so that memory usage stays bounded regardless of the number of entities.
+     * <p>
+     * JDBC batching is enabled for the session with {@code chunkSize} for the duration of the call,
+     * see {@link #saveAll(Iterable)} for details.
+     * <p>
+     * Note that clearing detaches <em>all</em> entities managed by the persistence context, including entities
+     * that were loaded before calling this method.
+     *
+     * @param entities  Entities to save.
+     * @param chunkSize Number of entities to save between flushes, also used as the JDBC batch size.
+     * @return Returns the ids/primary keys of the saved entities in stream order.
+     */
+    default List<PK> saveAll(Stream<E> entities, int chunkSize) {
+        Objects.requireNonNull(entities);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive, got " + chunkSize);
         }
-        return entityManager().merge(entity);
+        Session session = entityManager().unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(chunkSize);
+        try {
+            List<PK> primaryKeys = new ArrayList<>();
+            List<E> chunk = new ArrayList<>(chunkSize);
+            Iterator<E> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(save(iterator.next()));
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    flush();
+                    for (E savedEntity : chunk) {
+                        primaryKeys.add(getPrimaryKey(savedEntity));
+                    }
+                    chunk.clear();
+                    entityManager().clear();
+                }
+            }
+            return primaryKeys;
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
+    /**
+     * Insert or update the given entity with a single dialect-specific statement, for example {@code MERGE} on H2,
+     * Oracle and SQL Server or {@code INSERT ... ON CONFLICT} on PostgreSQL. Unlike {@link #save(Object)}, which
+     * calls {@code merge()} for detached entities and thereby issues a {@code SELECT} before the {@code UPDATE},
+     * this needs one round-trip.
+     * <p>
+     * The statement is executed with a {@link StatelessSession} that shares the connection and transaction of
+     * {@link #entityManager()}, after flushing pending changes. This means that the write bypasses the persistence
+     * context, lifecycle callbacks, cascades and Hibernate Envers auditing. If the persistence context contains
+     * an instance with the same id, it is detached as its state is stale afterward.
+     *
+     * @param entity Entity to upsert, must have an assigned id/primary key.
+     */
+    default void upsert(E entity) {
+        upsertAll(Collections.singletonList(entity));
+    }
+
+    /**
+     * {@link #upsert(Object)}s all given entities with JDBC batching enabled for the duration of the call.
+     *
+     * @param entities Entities to upsert, must have assigned ids/primary keys.
+     */
+    default void upsertAll(Iterable<E> entities) {
+        Objects.requireNonNull(entities);
+        for (E entity : entities) {
+            Objects.requireNonNull(entity);
+            PK primaryKey = getPrimaryKey(entity);
+            if (EntityIdentifier.of(entityManager(), Hibernate.getClassLazy(entity)).isUnsaved(primaryKey)) {
+                throw new IllegalArgumentException("upsert() requires an assigned primary key, use save() for new "
+                        + entity.getClass().getName() + " entities");
+            }
+            Object managed = ManagedEntities.find(entityManager(), entity.getClass(), primaryKey);
+            if (managed != null) {
+                entityManager().detach(managed);
+            }
+        }
+        flush();
+        Session session = entityManager().unwrap(Session.class);
+        SessionFactory sessionFactory = session.getSessionFactory();
+        session.doWork(connection -> {
+            try (StatelessSession statelessSession = sessionFactory.withStatelessOptions()
+                    .connection(connection)
+                    .openStatelessSession()) {
+                statelessSession.setJdbcBatchSize(DEFAULT_BATCH_SIZE);
+                for (E entity : entities) {
+                    statelessSession.upsert(entity);
+                }
+                ((SharedSessionContractImplementor) statelessSession).getJdbcCoordinator().executeBatch();
+            }
+        });
     }
 
     /**
@@ -118,7 +278,9 @@ public interface EntityRepository<E, PK extends Serializable> {
      * @param entity Entity to remove.
      */
     default void remove(E entity) {
+        RepositoryOperationEvent event = RepositoryOperationEvent.start();
         entityManager().remove(entity);
+        event.end(Hibernate.getClassLazy(entity), "remove", "remove", 1);
     }
 
     /**
@@ -151,14 +313,18 @@ public interface EntityRepository<E, PK extends Serializable> {
      * @param entity Entity to refresh.
      */
     default void refresh(E entity) {
+        RepositoryOperationEvent event = RepositoryOperationEvent.start();
         entityManager().refresh(entity);
+        event.end(Hibernate.getClassLazy(entity), "refresh", "refresh", 1);
     }
 
     /**
      * Convenience access to {@link jakarta.persistence.EntityManager#flush()}.
      */
     default void flush() {
+        RepositoryOperationEvent event = RepositoryOperationEvent.start();
         entityManager().flush();
+        event.end(null, "flush", "flush", 0);
     }
 
     /**
@@ -170,18 +336,137 @@ public interface EntityRepository<E, PK extends Serializable> {
         entityManager().detach(entity);
     }
 
+    /**
+     * Runs the given work with the session in read-only mode, so that all entities loaded by the work are read-only.
+     * <p>
+     * Hibernate does not keep a snapshot of the loaded state of read-only entities and skips them when checking
+     * for dirty entities during flush, which saves memory and flush time. Changes to read-only entities are not
+     * written to the database. Entities that were already loaded before the call are not affected, and entities
+     * loaded within the call stay read-only afterward.
+     * <p>
+     * Example: {@code List<Book> books = bookRepository.readOnly(() -> bookRepository.findAll());}
+     *
+     * @param work Work that loads entities, usually calls to repository methods.
+     * @param <T>  Result type.
+     * @return Result of the work.
+     */
+    default <T> T readOnly(Supplier<T> work) {
+        Session session = entityManager().unwrap(Session.class);
+        boolean previousReadOnly = session.isDefaultReadOnly();
+        session.setDefaultReadOnly(true);
+        try {
+            return work.get();
+        } finally {
+            session.setDefaultReadOnly(previousReadOnly);
+        }
+    }
+
+    /**
+     * Runs the given work with the named Hibernate fetch profile enabled, so that the associations of the profile
+     * are fetched together with the entities loaded by the work instead of with a lazy load per entity.
+     * The fetch profile is disabled again after the call unless it was enabled before.
+     * <p>
+     * Example: {@code List<Task> tasks = taskRepository.withFetchProfile("task-with-author", () -> taskRepository.findAll());}
+     *
+     * @param fetchProfile Name of a fetch profile declared with {@link org.hibernate.annotations.FetchProfile}.
+     * @param work         Work that loads entities, usually calls to repository methods.
+     * @param <T>          Result type.
+     * @return Result of the work.
+     */
+    default <T> T withFetchProfile(String fetchProfile, Supplier<T> work) {
+        Session session = entityManager().unwrap(Session.class);
+        if (session.isFetchProfileEnabled(fetchProfile)) {
+            return work.get();
+        }
+        session.enableFetchProfile(fetchProfile);
+        try {
+            return work.get();
+        } finally {
+            session.disableFetchProfile(fetchProfile);
+        }
+    }
+
+    /**
+     * Returns a read-only view of this repository where every method, including the generated {@code @Find},
+     * {@code @HQL} and {@code @SQL} methods, is run with {@link #readOnly(Supplier)}.
+     * <p>
+     * Example: {@code List<Book> books = bookRepository.readOnly(BookRepository.class).findByAuthor(author);}
+     * <p>
+     * The view invokes the methods on the repository instance itself, not on the CDI contextual reference that was
+     * injected, so the calls bypass the interceptors of the client proxy, for example {@code @Transactional} and the
+     * {@code @Monitored} repository monitoring. To keep them, call {@link #readOnly(Supplier)} on the injected
+     * repository instead: {@code bookRepository.readOnly(() -> bookRepository.findByAuthor(author))}.
+     *
+     * @param repositoryInterface The repository interface that this repository implements.
+     * @param <R>                 Repository type.
+     * @return Read-only view of this repository.
+     */
+    default <R extends EntityRepository<E, PK>> R readOnly(Class<R> repositoryInterface) {
+        if (!repositoryInterface.isInstance(this)) {
+            throw new IllegalArgumentException(getClass().getName() + " does not implement "
+                    + repositoryInterface.getName());
+        }
+        Object readOnlyView = Proxy.newProxyInstance(repositoryInterface.getClassLoader(),
+                new Class<?>[]{repositoryInterface},
+                (proxy, method, args) -> readOnly(() -> {
+                    try {
+                        return method.invoke(this, args);
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException(e);
+                    } catch (InvocationTargetException e) {
+                        if (e.getCause() instanceof RuntimeException) {
+                            throw (RuntimeException) e.getCause();
+                        }
+                        if (e.getCause() instanceof Error) {
+                            throw (Error) e.getCause();
+                        }
+                        throw new IllegalStateException(e.getCause());
+                    }
+                }));
+        return repositoryInterface.cast(readOnlyView);
+    }
+
     /**
      * Return the id/primary key of the entity. If the entity does not yet have an id,
      * returns null or, for primitive numeric primary key types, a {@link Number} whose {@code longValue() == 0L}.
+     * <p>
+     * The identifier is read with the accessor generated by the
+     * {@link ee.hiberspike.data.processor.RepositoryMetadataProcessor} annotation processor when it is available.
+     * Otherwise the identifier attribute is resolved from the metamodel once per entity class and read directly
+     * afterward.
      *
      * @param entity The entity.
      * @return id/primary key of the entity
      */
     @SuppressWarnings("unchecked")
     default PK getPrimaryKey(E entity) {
-        return (PK) entityManager().getEntityManagerFactory()
-                .getPersistenceUnitUtil()
-                .getIdentifier(entity);
+        Function<E, PK> accessor = RepositoryMetadataRegistry.primaryKeyAccessorOf(getClass());
+        if (accessor != null && !(entity instanceof HibernateProxy)) {
+            return accessor.apply(entity);
+        }
+        return (PK) EntityIdentifier.getIdentifier(entityManager(), entity);
+    }
+
+    /**
+     * Returns the number of entities managed by the persistence context, for monitoring the growth of the context
+     * in long transactions.
+     *
+     * @return Number of managed entities.
+     */
+    default int getPersistenceContextSize() {
+        return PersistenceContextGuard.sizeOf(entityManager());
+    }
+
+    /**
+     * Returns the guard that {@link #save(Object)} checks the size of the persistence context with, null by default
+     * for no checks.
+     * <p>
+     * Override with {@code @Override default PersistenceContextGuard getPersistenceContextGuard() { return GUARD; } }
+     *
+     * @return Persistence context guard or null.
+     */
+    default PersistenceContextGuard getPersistenceContextGuard() {
+        return null;
     }
 
 }
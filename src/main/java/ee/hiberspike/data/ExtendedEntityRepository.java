@@ -5,19 +5,49 @@
 
 package ee.hiberspike.data;
 
+import jakarta.persistence.EntityGraph;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.query.KeyedPage;
+import org.hibernate.query.KeyedResultList;
+import org.hibernate.query.Order;
+import org.hibernate.query.Page;
 
 import java.io.Serializable;
+import java.lang.reflect.RecordComponent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.util.Optional.ofNullable;
 
 /**
- * Adds the {@link #findBy(PK id)}, {@link #findOptionalBy(PK id)} and {@link #count()} operations to {@link EntityRepository}.
+ * Adds the {@link #findBy(PK id)}, {@link #findOptionalBy(PK id)}, {@link #count()} and {@link #removeById(PK id)}
+ * operations to {@link EntityRepository}.
  * <p>
- * Extending repositories must provide the entity's class with
- * {@code @Override default Class<EntityType> getEntityClass() { return EntityType.class; } }
+ * The entity class is resolved by {@link #getEntityClass()}, see {@link RepositoryMetadata}.
  *
  * @param <E>  Entity type.
  * @param <PK> Primary key type.
@@ -25,14 +55,60 @@ import static java.util.Optional.ofNullable;
 public interface ExtendedEntityRepository<E, PK extends Serializable>
         extends EntityRepository<E, PK> {
 
+    /**
+     * Maximum number of ids in a single {@code in (...)} list used by bulk operations like {@link #removeAllById}.
+     */
+    int DEFAULT_IN_CLAUSE_SIZE = 500;
+
+    /**
+     * JDBC fetch size used by {@link #streamAll()}.
+     */
+    int DEFAULT_FETCH_SIZE = 100;
+
     /**
      * Entity lookup by ID/primary key.
+     * <p>
+     * Served from the {@link #getNearCache()} if the repository has one. With a near cache, the returned entity
+     * is detached both on cache hits and misses, unless it is already managed by the persistence context, so
+     * changes to it must be written with {@link #save(Object)}.
      *
      * @param id Entity ID field, DB primary key.
      * @return Entity identified by primary key or null if it does not exist.
      */
     default E findBy(PK id) {
-        return entityManager().find(getEntityClass(), id);
+        RepositoryOperationEvent event = RepositoryOperationEvent.start();
+        NearCache<PK, E> nearCache = getNearCache();
+        E entity = nearCache != null
+                ? nearCache.find(entityManager(), getEntityClass(), id)
+                : entityManager().find(getEntityClass(), id);
+        event.end(getEntityClass(), "findBy", "find", entity == null ? 0 : 1);
+        return entity;
+    }
+
+    /**
+     * Entity lookup by ID/primary key that fetches the attributes of the given entity graph in the same query.
+     * <p>
+     * The graph is applied as a fetch graph: attributes in the graph are fetched eagerly, attributes not in
+     * the graph are treated as lazy. Use it to avoid lazy loads of associations after the lookup.
+     *
+     * @param id    Entity ID field, DB primary key.
+     * @param graph Entity graph that describes the attributes to fetch.
+     * @return Entity identified by primary key or null if it does not exist.
+     */
+    default E findBy(PK id, EntityGraph<E> graph) {
+        return entityManager().find(getEntityClass(), id, Map.of(GraphSemantic.FETCH.getJakartaHintName(), graph));
+    }
+
+    /**
+     * Entity lookup by ID/primary key that fetches the attributes of the named entity graph in the same query,
+     * see {@link #findBy(Serializable, EntityGraph)}.
+     *
+     * @param id        Entity ID field, DB primary key.
+     * @param graphName Name of an entity graph declared with {@link jakarta.persistence.NamedEntityGraph}.
+     * @return Entity identified by primary key or null if it does not exist.
+     */
+    default E findBy(PK id, String graphName) {
+        return findBy(id, getEntityGraph(graphName));
     }
 
     /**
@@ -46,26 +122,592 @@ public interface ExtendedEntityRepository<E, PK extends Serializable>
     }
 
     /**
-     * Count all existing entities of entity class {@code <E>}.
+     * Checks whether an entity with the given ID/primary key exists without loading it.
+     * <p>
+     * Checks the persistence context first and runs a {@code select 1 ... where id = ?} query with a row limit
+     * of one if the entity is not managed.
+     *
+     * @param id Entity ID field, DB primary key.
+     * @return True if the entity exists.
+     */
+    default boolean existsById(PK id) {
+        Objects.requireNonNull(id);
+        if (ManagedEntities.find(entityManager(), getEntityClass(), id) != null) {
+            return true;
+        }
+        EntityIdentifier identifier = EntityIdentifier.of(entityManager(), getEntityClass());
+        return !entityManager()
+                .createQuery("select 1 from " + identifier.getEntityName() + " e where e."
+                        + identifier.requireAttributeName() + " = :id", Integer.class)
+                .setParameter("id", id)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * Returns the subset of the given IDs/primary keys for which an entity exists without loading the entities.
+     * <p>
+     * Checks the persistence context first and runs {@code select id ... where id in (...)} queries of at most
+     * {@link #DEFAULT_IN_CLAUSE_SIZE} IDs for the IDs of entities that are not managed.
+     *
+     * @param ids Entity ID fields, DB primary keys.
+     * @return IDs of existing entities, empty if none exist.
+     */
+    @SuppressWarnings("unchecked")
+    default Set<PK> existingIds(Collection<PK> ids) {
+        Objects.requireNonNull(ids);
+        Class<E> entityClass = getEntityClass();
+        Set<PK> existing = new HashSet<>();
+        List<PK> unmanaged = new ArrayList<>();
+        for (PK id : ids) {
+            if (ManagedEntities.find(entityManager(), entityClass, id) != null) {
+                existing.add(id);
+            } else {
+                unmanaged.add(id);
+            }
+        }
+        EntityIdentifier identifier = EntityIdentifier.of(entityManager(), entityClass);
+        String select = "select e." + identifier.requireAttributeName() + " from " + identifier.getEntityName()
+                + " e where e." + identifier.requireAttributeName() + " in :ids";
+        for (int from = 0; from < unmanaged.size(); from += DEFAULT_IN_CLAUSE_SIZE) {
+            List<PK> chunk = unmanaged.subList(from, Math.min(from + DEFAULT_IN_CLAUSE_SIZE, unmanaged.size()));
+            existing.addAll((List<PK>) entityManager().createQuery(select)
+                    .setParameter("ids", chunk)
+                    .getResultList());
+        }
+        return existing;
+    }
+
+    /**
+     * Lookup all existing entities of entity class {@code <E>} projected to the given record type,
+     * see {@link #findAll(Class, Page)}.
+     *
+     * @param recordType Record type to project to.
+     * @param <R>        Record type.
+     * @return List of records, empty if none found.
+     */
+    default <R> List<R> findAll(Class<R> recordType) {
+        return findAll(recordType, null);
+    }
+
+    /**
+     * Lookup a range of existing entities of entity class {@code <E>} projected to the given record type with
+     * support for pagination.
+     * <p>
+     * Only the entity attributes named like the record components are selected, and the records are created with
+     * the canonical record constructor. No entities are loaded into the persistence context, which saves
+     * memory and avoids dirty checking. For example, given
+     * {@code record BookTitle(Long id, String title) {}}, {@code findAll(BookTitle.class, Page.first(10))}
+     * runs {@code select b.id, b.title from Book b order by b.id}.
+     *
+     * @param recordType Record type to project to, component names must match entity attribute names.
+     * @param page       The pagination specification, results are ordered by ID/primary key if given.
+     * @param <R>        Record type.
+     * @return List of records, empty if none found.
+     */
+    default <R> List<R> findAll(Class<R> recordType, Page page) {
+        if (!recordType.isRecord()) {
+            throw new IllegalArgumentException(recordType.getName() + " is not a record");
+        }
+        CriteriaBuilder cb = entityManager().getCriteriaBuilder();
+        CriteriaQuery<R> cq = cb.createQuery(recordType);
+        Root<E> root = cq.from(getEntityClass());
+        RecordComponent[] components = recordType.getRecordComponents();
+        Selection<?>[] selections = new Selection<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            selections[i] = root.get(components[i].getName());
+        }
+        cq.select(cb.construct(recordType, selections));
+        if (page == null) {
+            return entityManager().createQuery(cq).getResultList();
+        }
+        EntityIdentifier identifier = EntityIdentifier.of(entityManager(), getEntityClass());
+        cq.orderBy(cb.asc(root.get(identifier.requireAttributeName())));
+        return entityManager().unwrap(Session.class).createSelectionQuery(cq).setPage(page).getResultList();
+    }
+
+    /**
+     * Lookup all existing entities of entity class {@code <E>} and fetch the attributes of the given entity graph
+     * in the same query, see {@link #findBy(Serializable, EntityGraph)}.
+     *
+     * @param graph Entity graph that describes the attributes to fetch.
+     * @return List of entities, empty if none found.
+     */
+    default List<E> findAll(EntityGraph<E> graph) {
+        return findAll(null, graph);
+    }
+
+    /**
+     * Lookup a range of existing entities of entity class {@code <E>} with support for pagination and fetch the
+     * attributes of the given entity graph in the same query, see {@link #findBy(Serializable, EntityGraph)}.
+     * <p>
+     * Note that Hibernate applies pagination in memory when the graph fetches a collection.
+     *
+     * @param page  The pagination specification, results are ordered by ID/primary key if given.
+     * @param graph Entity graph that describes the attributes to fetch.
+     * @return List of entities, empty if none found.
+     */
+    default List<E> findAll(Page page, EntityGraph<E> graph) {
+        Objects.requireNonNull(graph);
+        CriteriaBuilder cb = entityManager().getCriteriaBuilder();
+        CriteriaQuery<E> cq = cb.createQuery(getEntityClass());
+        Root<E> root = cq.from(getEntityClass());
+        cq.select(root);
+        if (page == null) {
+            return entityManager().unwrap(Session.class)
+                    .createSelectionQuery(cq)
+                    .setEntityGraph(graph, GraphSemantic.FETCH)
+                    .getResultList();
+        }
+        EntityIdentifier identifier = EntityIdentifier.of(entityManager(), getEntityClass());
+        cq.orderBy(cb.asc(root.get(identifier.requireAttributeName())));
+        return entityManager().unwrap(Session.class)
+                .createSelectionQuery(cq)
+                .setEntityGraph(graph, GraphSemantic.FETCH)
+                .setPage(page)
+                .getResultList();
+    }
+
+    /**
+     * Lookup a range of existing entities of entity class {@code <E>} with support for pagination and fetch the
+     * attributes of the named entity graph in the same query, see {@link #findAll(Page, EntityGraph)}.
+     *
+     * @param page      The pagination specification.
+     * @param graphName Name of an entity graph declared with {@link jakarta.persistence.NamedEntityGraph}.
+     * @return List of entities, empty if none found.
+     */
+    default List<E> findAll(Page page, String graphName) {
+        return findAll(page, getEntityGraph(graphName));
+    }
+
+    /**
+     * Returns the named entity graph of entity class {@code <E>}.
+     *
+     * @param graphName Name of an entity graph declared with {@link jakarta.persistence.NamedEntityGraph}.
+     * @return The entity graph.
+     */
+    @SuppressWarnings("unchecked")
+    default EntityGraph<E> getEntityGraph(String graphName) {
+        return (EntityGraph<E>) entityManager().getEntityGraph(graphName);
+    }
+
+    /**
+     * Entity lookup by multiple IDs/primary keys, see {@link #findAllById(Collection, int, boolean)}.
+     * Entities are returned in the order of the given IDs.
+     *
+     * @param ids Entity ID fields, DB primary keys.
+     * @return List of found entities, empty if none found.
+     */
+    default List<E> findAllById(Collection<PK> ids) {
+        return findAllById(ids, DEFAULT_IN_CLAUSE_SIZE, true);
+    }
+
+    /**
+     * Entity lookup by multiple IDs/primary keys with Hibernate's multi-load.
+     * <p>
+     * Entities that are already in the persistence context or in the second-level cache are resolved from there,
+     * the rest are loaded with {@code where id in (...)} queries of at most {@code batchSize} IDs. This is
+     * the recommended way to resolve many references, as {@link #findBy(PK id)} needs a round-trip per ID.
+     *
+     * @param ids       Entity ID fields, DB primary keys.
+     * @param batchSize Maximum number of IDs per query.
+     * @param ordered   Whether to return the entities in the order of the given IDs.
+     * @return List of found entities without nulls for IDs that do not exist, empty if none found.
+     */
+    default List<E> findAllById(Collection<PK> ids, int batchSize, boolean ordered) {
+        Objects.requireNonNull(ids);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<E> entities = entityManager().unwrap(Session.class)
+                .byMultipleIds(getEntityClass())
+                .withBatchSize(batchSize)
+                .enableSessionCheck(true)
+                .enableOrderedReturn(ordered)
+                .multiLoad(new ArrayList<>(ids));
+        List<E> found = new ArrayList<>(entities.size());
+        for (E entity : entities) {
+            if (entity != null) {
+                found.add(entity);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Entity lookup by multiple IDs/primary keys, see {@link #findAllById(Collection, int, boolean)}.
+     *
+     * @param ids Entity ID fields, DB primary keys.
+     * @return Map of found entities by ID in the order of the given IDs, empty if none found.
+     */
+    default Map<PK, E> findAllByIdAsMap(Collection<PK> ids) {
+        List<E> entities = findAllById(ids, DEFAULT_IN_CLAUSE_SIZE, true);
+        Map<PK, E> entitiesById = new LinkedHashMap<>();
+        for (E entity : entities) {
+            entitiesById.put(getPrimaryKey(entity), entity);
+        }
+        return entitiesById;
+    }
+
+    /**
+     * Lookup a range of existing entities of entity class {@code <E>} with key-based (seek) pagination.
+     * <p>
+     * Unlike {@link #findAll(Page)}, which skips rows with {@code offset}, this restricts the query to rows that
+     * come after the key of the last row of the previous page, so that fetching a deep page costs the same as
+     * fetching the first page. Start with {@link #firstKeyedPage(int)} or with a page that is ordered by a
+     * caller-supplied unique sort key, for example
+     * {@code Page.first(20).keyedBy(List.of(Order.asc(Book_.title), Order.asc(Book_.id)))}, and continue with
+     * {@link KeyedResultList#getNextPage()} of the returned result until {@link KeyedResultList#isLastPage()}.
+     *
+     * @param page The key-based pagination specification.
+     * @return List of entities with the specification of the next and previous page.
+     */
+    default KeyedResultList<E> findAll(KeyedPage<E> page) {
+        Objects.requireNonNull(page);
+        EntityIdentifier identifier = EntityIdentifier.of(entityManager(), getEntityClass());
+        return entityManager().unwrap(Session.class)
+                .createSelectionQuery("from " + identifier.getEntityName(), getEntityClass())
+                .getKeyedResultList(page);
+    }
+
+    /**
+     * Returns the specification of the first page for {@link #findAll(KeyedPage)} ordered by ID/primary key.
+     *
+     * @param max The maximum number of results per page.
+     * @return Key-based pagination specification of the first page.
+     */
+    default KeyedPage<E> firstKeyedPage(int max) {
+        EntityIdentifier identifier = EntityIdentifier.of(entityManager(), getEntityClass());
+        return Page.first(max).keyedBy(Order.asc(getEntityClass(), identifier.requireAttributeName()));
+    }
+
+    /**
+     * Stream all existing entities of entity class {@code <E>}, see {@link #streamAll(int)}.
+     *
+     * @return Stream of entities, must be closed after use.
+     */
+    default Stream<E> streamAll() {
+        return streamAll(DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Stream all existing entities of entity class {@code <E>} with a forward-only cursor, fetching
+     * {@code fetchSize} rows per database round-trip.
+     * <p>
+     * Unlike {@link #findAll()}, the entities are not collected into a list. Each entity is loaded read-only
+     * and detached from the persistence context before it is passed down the stream, so that memory usage stays
+     * flat regardless of the number of rows. Lazy associations of the streamed entities cannot be initialized.
+     * <p>
+     * The stream holds an open JDBC result set and must be closed after use, preferably with try-with-resources.
+     *
+     * @param fetchSize JDBC fetch size.
+     * @return Stream of detached entities, must be closed after use.
+     */
+    default Stream<E> streamAll(int fetchSize) {
+        Session session = entityManager().unwrap(Session.class);
+        EntityIdentifier identifier = EntityIdentifier.of(entityManager(), getEntityClass());
+        ScrollableResults<E> results = session
+                .createSelectionQuery("from " + identifier.getEntityName(), getEntityClass())
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
+        Spliterator<E> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super E> action) {
+                if (!results.next()) {
+                    return false;
+                }
+                E entity = results.get();
+                session.detach(entity);
+                action.accept(entity);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(results::close);
+    }
+
+    /**
+     * Visit all existing entities of entity class {@code <E>} in parallel, see
+     * {@link #parallelScan(int, int, Executor, Consumer, ScanProgressListener)}. Uses a thread pool with a
+     * thread per partition and chunks of {@link #DEFAULT_FETCH_SIZE} entities. If a partition fails, the thread
+     * pool is shut down with interrupts and the failure is rethrown after the other partition scans have stopped.
+     *
+     * @param partitions   Number of primary key ranges to scan in parallel.
+     * @param chunkHandler Handler of chunks of detached entities, called concurrently from the worker threads.
+     * @return Number of visited entities.
+     */
+    default long parallelScan(int partitions, Consumer<List<E>> chunkHandler) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive, got " + partitions);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(partitions);
+        try {
+            long rows = parallelScan(partitions, DEFAULT_FETCH_SIZE, executor, chunkHandler,
+                    ScanProgressListener.NONE);
+            executor.shutdown();
+            return rows;
+        } catch (RuntimeException | Error e) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Visit all existing entities of entity class {@code <E>} in parallel for reindexing and batch jobs on tables
+     * that are too large for {@link #findAll()}.
+     * <p>
+     * The range between the smallest and largest ID/primary key is split into {@code partitions} ranges of equal
+     * width. Each range is scanned on the given executor with its own read-only session and key-based pagination
+     * in chunks of at most {@code chunkSize} entities, so that memory usage is bounded by the chunk size and
+     * partition count. The sessions are independent of {@link #entityManager()} and do not join its transaction;
+     * chunk handlers that write should use their own transactions.
+     * <p>
+     * Requires an integral primary key, that is {@code long}, {@code int}, {@code short}, {@code byte}, their
+     * wrappers or {@link java.math.BigInteger}. Partitions are balanced by key range, not by row count, so sparse
+     * key ranges result in uneven partitions. On Java 21+, pass {@code Executors.newVirtualThreadPerTaskExecutor()}
+     * as the executor to avoid a platform thread per partition.
+     * <p>
+     * If a partition fails, the partitions that have not started are cancelled, the running ones stop after their
+     * current chunk and the failure is rethrown.
+     *
+     * @param partitions   Number of primary key ranges to scan in parallel.
+     * @param chunkSize    Maximum number of entities per chunk.
+     * @param executor     Executor that runs the partition scans.
+     * @param chunkHandler Handler of chunks of detached entities, called concurrently from the worker threads.
+     * @param listener     Listener of per-partition progress.
+     * @return Number of visited entities.
+     */
+    default long parallelScan(int partitions, int chunkSize, Executor executor, Consumer<List<E>> chunkHandler,
+                              ScanProgressListener listener) {
+        if (partitions <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("partitions and chunkSize must be positive, got "
+                    + partitions + " and " + chunkSize);
+        }
+        Objects.requireNonNull(executor);
+        Objects.requireNonNull(chunkHandler);
+        Objects.requireNonNull(listener);
+        return new ParallelScan<>(entityManager(), getEntityClass(), chunkSize, chunkHandler, listener)
+                .run(partitions, executor);
+    }
+
+    /**
+     * Count all existing entities of entity class {@code <E>} using the strategy returned by
+     * {@link #getCountStrategy()}.
      *
      * @return Counter.
      */
     default Long count() {
-        CriteriaBuilder cb = entityManager().getCriteriaBuilder();
-        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
-        cq.select(cb.count(cq.from(getEntityClass())));
-        return entityManager().createQuery(cq).getSingleResult();
+        RepositoryOperationEvent event = RepositoryOperationEvent.start();
+        Long count = EntityCounter.count(entityManager(), getClass(), getEntityClass(), getCountStrategy(),
+                getCountCacheTimeToLive());
+        event.end(getEntityClass(), "count", "count", 1);
+        return count;
+    }
+
+    /**
+     * Returns the strategy of {@link #count()}, {@link CountStrategy#EXACT} by default.
+     * <p>
+     * Override with {@code @Override default CountStrategy getCountStrategy() { return CountStrategy.CACHED; } }
+     * to select another strategy for a repository.
+     *
+     * @return non-null count strategy
+     */
+    default CountStrategy getCountStrategy() {
+        return CountStrategy.EXACT;
     }
 
     /**
-     * Must return the {@link Class} object that represents the entity
+     * Returns how long {@link CountStrategy#CACHED} counts are reused, 10 seconds by default. Counts are cached per
+     * repository, so repositories of the same entity class with different time-to-live settings do not share them.
+     *
+     * @return non-null time-to-live of cached counts
+     */
+    default Duration getCountCacheTimeToLive() {
+        return Duration.ofSeconds(10);
+    }
+
+    /**
+     * Remove the entity with the given ID/primary key with a bulk {@code delete} statement without loading it.
+     * <p>
+     * Same as {@code removeById(id, false)}, see {@link #removeAllById(Collection, boolean)}.
+     *
+     * @param id Entity ID field, DB primary key.
+     * @return True if the entity existed and was removed.
+     */
+    default boolean removeById(PK id) {
+        return removeById(id, false);
+    }
+
+    /**
+     * Remove the entity with the given ID/primary key, see {@link #removeAllById(Collection, boolean)}.
+     *
+     * @param id         Entity ID field, DB primary key.
+     * @param fireEvents Whether to remove the entity through the persistence context and fire Hibernate events.
+     * @return True if the entity existed and was removed.
+     */
+    default boolean removeById(PK id, boolean fireEvents) {
+        Objects.requireNonNull(id);
+        return removeAllById(List.of(id), fireEvents) > 0;
+    }
+
+    /**
+     * Remove the entities with the given IDs/primary keys with bulk {@code delete} statements without loading them.
+     * <p>
+     * Same as {@code removeAllById(ids, false)}, see {@link #removeAllById(Collection, boolean)}.
+     *
+     * @param ids Entity ID fields, DB primary keys.
+     * @return Number of removed entities.
+     */
+    default int removeAllById(Collection<PK> ids) {
+        return removeAllById(ids, false);
+    }
+
+    /**
+     * Remove the entities with the given IDs/primary keys.
+     * <p>
+     * If {@code fireEvents} is false, the entities are removed with {@code delete ... where id in (...)} statements
+     * of at most {@link #DEFAULT_IN_CLAUSE_SIZE} ids without loading them. Instances that are already managed by the
+     * persistence context are detached first. Bulk deletes bypass the persistence context, so cascades,
+     * lifecycle callbacks and Hibernate Envers auditing do not apply.
+     * <p>
+     * If {@code fireEvents} is true, each entity is looked up with {@code entityManager().find(...)} and removed
+     * with {@link #remove(Object)}, so that cascades, callbacks and Envers auditing of {@code @Audited} entities
+     * keep working. This loads entities that are not yet in the persistence context, as their state is
+     * needed by the event listeners. The lookup bypasses the {@link #getNearCache() near cache}, which returns
+     * detached entities that cannot be removed.
+     *
+     * @param ids        Entity ID fields, DB primary keys.
+     * @param fireEvents Whether to remove the entities through the persistence context and fire Hibernate events.
+     * @return Number of removed entities.
+     */
+    default int removeAllById(Collection<PK> ids, boolean fireEvents) {
+        Objects.requireNonNull(ids);
+        int removed = 0;
+        NearCache<PK, E> nearCache = getNearCache();
+        if (nearCache != null) {
+            for (PK id : ids) {
+                nearCache.invalidate(entityManager(), id);
+            }
+        }
+        if (fireEvents) {
+            for (PK id : ids) {
+                E entity = entityManager().find(getEntityClass(), id);
+                if (entity != null) {
+                    remove(entity);
+                    removed++;
+                }
+            }
+            return removed;
+        }
+        Class<E> entityClass = getEntityClass();
+        for (PK id : ids) {
+            E managed = ManagedEntities.find(entityManager(), entityClass, id);
+            if (managed != null) {
+                entityManager().detach(managed);
+            }
+        }
+        EntityIdentifier identifier = EntityIdentifier.of(entityManager(), entityClass);
+        String delete = "delete from " + identifier.getEntityName()
+                + " e where e." + identifier.requireAttributeName() + " in :ids";
+        List<PK> chunk = new ArrayList<>(Math.min(ids.size(), DEFAULT_IN_CLAUSE_SIZE));
+        for (PK id : ids) {
+            chunk.add(id);
+            if (chunk.size() == DEFAULT_IN_CLAUSE_SIZE) {
+                removed += entityManager().createQuery(delete).setParameter("ids", chunk).executeUpdate();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            removed += entityManager().createQuery(delete).setParameter("ids", chunk).executeUpdate();
+        }
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Invalidates the entity in the {@link #getNearCache()} if the repository has one.
+     */
+    @Override
+    default E save(E entity) {
+        E savedEntity = EntityRepository.super.save(entity);
+        NearCache<PK, E> nearCache = getNearCache();
+        if (nearCache != null) {
+            nearCache.invalidate(entityManager(), getPrimaryKey(savedEntity));
+        }
+        return savedEntity;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Invalidates the entity in the {@link #getNearCache()} if the repository has one.
+     */
+    @Override
+    default void remove(E entity) {
+        NearCache<PK, E> nearCache = getNearCache();
+        if (nearCache != null) {
+            nearCache.invalidate(entityManager(), getPrimaryKey(entity));
+        }
+        EntityRepository.super.remove(entity);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Invalidates the entities in the {@link #getNearCache()} if the repository has one.
+     */
+    @Override
+    default void upsertAll(Iterable<E> entities) {
+        EntityRepository.super.upsertAll(entities);
+        NearCache<PK, E> nearCache = getNearCache();
+        if (nearCache != null) {
+            for (E entity : entities) {
+                nearCache.invalidate(entityManager(), getPrimaryKey(entity));
+            }
+        }
+    }
+
+    /**
+     * Returns the near cache of {@link #findBy(PK id)} lookups, null by default for no caching.
+     * <p>
+     * Override with {@code @Override default NearCache<PK, EntityType> getNearCache() { return NEAR_CACHE; } }
+     * where {@code NEAR_CACHE} is a constant of the repository interface, see {@link NearCache}.
+     * <p>
+     * The cache is only invalidated by the modifying operations of the repository. Changes to managed entities
+     * that are flushed by dirty checking without calling {@link #save(Object)}, and bulk updates and deletes, leave
+     * stale entries in the cache until they expire or are invalidated with {@link NearCache#invalidate(Object)} or
+     * {@link NearCache#invalidateAll()}.
+     *
+     * @return near cache or null
+     */
+    default NearCache<PK, E> getNearCache() {
+        return null;
+    }
+
+    /**
+     * Returns the {@link Class} object that represents the entity
      * type {@code <E>} managed by this repository.
      * <p>
-     * Should be implemented with a simple
+     * The entity class is taken from the {@link RepositoryMetadata} generated by the
+     * {@link ee.hiberspike.data.processor.RepositoryMetadataProcessor} annotation processor, or resolved from the
+     * type arguments of the repository interface with reflection when the processor has not been run. Repositories
+     * can still override it with a simple
      * {@code @Override default Class<EntityType> getEntityClass() { return EntityType.class; } }
-     * statement in extending repositories.
+     * statement.
      *
      * @return non-null entity class
+     * @throws IllegalStateException if the entity class cannot be resolved.
      */
-    Class<E> getEntityClass();
+    @SuppressWarnings("unchecked")
+    default Class<E> getEntityClass() {
+        return (Class<E>) RepositoryMetadataRegistry.entityClassOf(getClass());
+    }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Lookups in the persistence context that never hit the database.
+ */
+final class ManagedEntities {
+
+    private ManagedEntities() {
+    }
+
+    /**
+     * Returns the entity with the given id if it is already managed by the persistence context of the entity manager.
+     *
+     * @param entityManager The entity manager.
+     * @param entityClass   The entity class.
+     * @param id            Entity ID field, DB primary key.
+     * @return The managed entity or null if the persistence context does not contain it or it has been removed.
+     */
+    static <E> E find(EntityManager entityManager, Class<E> entityClass, Object id) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(entityClass);
+        PersistenceContext persistenceContext = session.getPersistenceContextInternal();
+        Object entity = persistenceContext.getEntity(session.generateEntityKey(id, persister));
+        if (entity == null) {
+            return null;
+        }
+        EntityEntry entry = persistenceContext.getEntry(entity);
+        if (entry != null && (entry.getStatus() == Status.DELETED || entry.getStatus() == Status.GONE)) {
+            return null;
+        }
+        return entityClass.cast(entity);
+    }
+
+}
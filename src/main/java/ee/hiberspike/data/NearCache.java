@@ -0,0 +1,227 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-process cache of {@link ExtendedEntityRepository#findBy} results for reference entities that are
+ * read often and change rarely.
+ * <p>
+ * Enable it for a repository by declaring the cache as an interface constant and returning it from
+ * {@link ExtendedEntityRepository#getNearCache()}:
+ * <pre>{@code
+ * NearCache<Long, Country> NEAR_CACHE = new NearCache<>(1_000, Duration.ofMinutes(5));
+ *
+ * @Override
+ * default NearCache<Long, Country> getNearCache() { return NEAR_CACHE; }
+ * }</pre>
+ * The cache holds snapshots of the loaded state of the entities, deep-copied with the Hibernate types of the
+ * attributes, so the cache is safe to share across transactions and threads. Lookups return detached entities,
+ * built from the snapshot on a hit and detached after loading on a miss, unless the entity is already managed by
+ * the persistence context, in which case the managed entity is returned. Only entities without associations are
+ * supported.
+ * <p>
+ * Entries expire after the time-to-live. When the maximum size is exceeded, entries are evicted in insertion
+ * order (FIFO), not by recency of use, so frequently read entries are evicted as well once they are the oldest.
+ * Entries are invalidated by the {@code save}, {@code remove}, {@code upsert} and {@code removeById} operations of
+ * the repository, both immediately and after the transaction completes. Changes that reach the database in other
+ * ways are not seen by the cache: generated bulk {@code @HQL} update and delete methods must be followed by
+ * {@link #invalidateAll()} and managed entities that are modified without calling {@code save} by
+ * {@link #invalidate(Object)}.
+ *
+ * @param <PK> Primary key type.
+ * @param <E>  Entity type.
+ */
+public final class NearCache<PK, E> {
+
+    private static final int INVALIDATION_STRIPES = 64;
+
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final ConcurrentMap<PK, Snapshot> snapshots = new ConcurrentHashMap<>();
+    // guarded by itself, only used by writes so that lookups stay lock-free
+    private final Set<PK> insertionOrder = new LinkedHashSet<>();
+    // invalidation counts per stripe of ids, a load is only cached if its stripe was not invalidated meanwhile
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumSize Maximum number of cached entities.
+     * @param timeToLive  How long a cached entity is used after it has been loaded.
+     */
+    public NearCache(int maximumSize, Duration timeToLive) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive, got " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+    }
+
+    /**
+     * Removes the entity with the given ID/primary key from the cache.
+     *
+     * @param id Entity ID field, DB primary key.
+     */
+    public void invalidate(PK id) {
+        if (id != null) {
+            synchronized (insertionOrder) {
+                invalidations.incrementAndGet(stripeOf(id));
+                snapshots.remove(id);
+                insertionOrder.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Removes all entities from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (insertionOrder) {
+            for (int stripe = 0; stripe < INVALIDATION_STRIPES; stripe++) {
+                invalidations.incrementAndGet(stripe);
+            }
+            snapshots.clear();
+            insertionOrder.clear();
+        }
+    }
+
+    /**
+     * @return Number of lookups that were served from the cache.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of lookups that were not served from the cache.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of entities that were evicted because the maximum size was exceeded.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Number of cached entities, including expired entities that have not been removed yet.
+     */
+    public int size() {
+        return snapshots.size();
+    }
+
+    E find(EntityManager entityManager, Class<E> entityClass, PK id) {
+        Objects.requireNonNull(id);
+        E managed = ManagedEntities.find(entityManager, entityClass, id);
+        if (managed != null) {
+            return managed;
+        }
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(entityClass);
+        long now = System.nanoTime();
+        Snapshot snapshot = snapshots.get(id);
+        if (snapshot != null && now - snapshot.expiresAt < 0) {
+            hits.increment();
+            return entityClass.cast(snapshot.toEntity(persister, id, session));
+        }
+        misses.increment();
+        int stripe = stripeOf(id);
+        long invalidation = invalidations.get(stripe);
+        E entity = entityManager.find(entityClass, id);
+        if (entity != null) {
+            put(id, new Snapshot(persister, entity, session.getFactory(), now + timeToLiveNanos), stripe,
+                    invalidation);
+            // detached like the entities built from snapshots, it was not managed before the lookup
+            entityManager.detach(entity);
+        }
+        return entity;
+    }
+
+    /**
+     * Invalidates the entry immediately, so that the current transaction does not see the state from before its
+     * changes, and once more after the transaction completes. A concurrent lookup that loaded the state from
+     * before the commit does not cache it, as {@link #put} sees that the id was invalidated during the load.
+     */
+    void invalidate(EntityManager entityManager, PK id) {
+        invalidate(id);
+        entityManager.unwrap(SessionImplementor.class).getActionQueue()
+                .registerProcess((success, session) -> invalidate(id));
+    }
+
+    private void put(PK id, Snapshot snapshot, int stripe, long invalidation) {
+        synchronized (insertionOrder) {
+            if (invalidations.get(stripe) != invalidation) {
+                return;
+            }
+            snapshots.put(id, snapshot);
+            insertionOrder.remove(id);
+            insertionOrder.add(id);
+            Iterator<PK> eldest = insertionOrder.iterator();
+            while (insertionOrder.size() > maximumSize) {
+                snapshots.remove(eldest.next());
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static int stripeOf(Object id) {
+        int hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & (INVALIDATION_STRIPES - 1);
+    }
+
+    private static final class Snapshot {
+        private final Object[] values;
+        private final long expiresAt;
+
+        private Snapshot(EntityPersister persister, Object entity, SessionFactoryImplementor factory,
+                         long expiresAt) {
+            this.values = deepCopy(persister, persister.getValues(entity), factory);
+            this.expiresAt = expiresAt;
+        }
+
+        private Object toEntity(EntityPersister persister, Object id, SessionImplementor session) {
+            Object entity = persister.instantiate(id, session);
+            persister.setValues(entity, deepCopy(persister, values, session.getFactory()));
+            return entity;
+        }
+
+        private static Object[] deepCopy(EntityPersister persister, Object[] values,
+                                         SessionFactoryImplementor factory) {
+            Type[] types = persister.getPropertyTypes();
+            Object[] copy = new Object[values.length];
+            for (int i = 0; i < values.length; i++) {
+                if (types[i].isAssociationType()) {
+                    throw new UnsupportedOperationException("Near cache does not support entities with associations, "
+                            + persister.getEntityName() + "." + persister.getPropertyNames()[i] + " is one");
+                }
+                copy[i] = types[i].deepCopy(values[i], factory);
+            }
+            return copy;
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Implements {@link ExtendedEntityRepository#parallelScan} by splitting the primary key range into partitions and
+ * scanning each partition with key-based pagination in its own session.
+ */
+final class ParallelScan<E> {
+
+    private final SessionFactory sessionFactory;
+    private final Class<E> entityClass;
+    private final EntityIdentifier identifier;
+    private final int chunkSize;
+    private final Consumer<List<E>> chunkHandler;
+    private final ScanProgressListener listener;
+    private volatile boolean failed;
+
+    ParallelScan(EntityManager entityManager, Class<E> entityClass, int chunkSize,
+                 Consumer<List<E>> chunkHandler, ScanProgressListener listener) {
+        this.sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        this.entityClass = entityClass;
+        this.identifier = EntityIdentifier.of(entityManager, entityClass);
+        this.chunkSize = chunkSize;
+        this.chunkHandler = chunkHandler;
+        this.listener = listener;
+        if (!identifier.isIntegral()) {
+            throw new UnsupportedOperationException("Parallel scan requires an integral primary key, entity "
+                    + identifier.getEntityName() + " does not have one");
+        }
+    }
+
+    long run(int partitions, Executor executor) {
+        Number[] range = idRange();
+        if (range[0] == null) {
+            return 0;
+        }
+        // BigInteger arithmetic, max - min does not fit in a long for key ranges wider than Long.MAX_VALUE
+        BigInteger min = toBigInteger(range[0]);
+        BigInteger max = toBigInteger(range[1]);
+        BigInteger width = max.subtract(min).divide(BigInteger.valueOf(partitions)).add(BigInteger.ONE);
+        List<CompletableFuture<Long>> futures = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            BigInteger from = min.add(width.multiply(BigInteger.valueOf(partition)));
+            BigInteger to = partition == partitions - 1 ? max : max.min(from.add(width).subtract(BigInteger.ONE));
+            int index = partition;
+            if (from.compareTo(max) > 0) {
+                listener.onProgress(index, partitions, 0, true);
+                continue;
+            }
+            futures.add(CompletableFuture.supplyAsync(() -> scan(index, partitions, from, to), executor));
+        }
+        try {
+            long rows = 0;
+            for (CompletableFuture<Long> future : futures) {
+                rows += future.join();
+            }
+            return rows;
+        } catch (CompletionException e) {
+            failed = true;
+            for (CompletableFuture<Long> future : futures) {
+                future.cancel(false);
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private Number[] idRange() {
+        try (Session session = sessionFactory.openSession()) {
+            Object[] range = session.createSelectionQuery("select min(e." + identifier.requireAttributeName()
+                            + "), max(e." + identifier.requireAttributeName() + ") from "
+                            + identifier.getEntityName() + " e", Object[].class)
+                    .getSingleResult();
+            return new Number[]{(Number) range[0], (Number) range[1]};
+        }
+    }
+
+    private long scan(int partition, int partitions, BigInteger from, BigInteger to) {
+        String idAttribute = "e." + identifier.requireAttributeName();
+        String firstQuery = "from " + identifier.getEntityName() + " e where " + idAttribute + " >= :from and "
+                + idAttribute + " <= :to order by " + idAttribute;
+        String nextQuery = "from " + identifier.getEntityName() + " e where " + idAttribute + " > :from and "
+                + idAttribute + " <= :to order by " + idAttribute;
+        long rows = 0;
+        try (Session session = sessionFactory.openSession()) {
+            session.setDefaultReadOnly(true);
+            Object lower = toIdType(from);
+            Object upper = toIdType(to);
+            boolean first = true;
+            while (!failed) {
+                List<E> chunk = session.createSelectionQuery(first ? firstQuery : nextQuery, entityClass)
+                        .setParameter("from", lower)
+                        .setParameter("to", upper)
+                        .setMaxResults(chunkSize)
+                        .getResultList();
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                lower = identifier.get(session, chunk.get(chunk.size() - 1));
+                first = false;
+                session.clear();
+                chunkHandler.accept(chunk);
+                rows += chunk.size();
+                listener.onProgress(partition, partitions, rows, false);
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            failed = true;
+            throw e;
+        }
+        listener.onProgress(partition, partitions, rows, true);
+        return rows;
+    }
+
+    private static BigInteger toBigInteger(Number value) {
+        return value instanceof BigInteger ? (BigInteger) value : BigInteger.valueOf(value.longValue());
+    }
+
+    private Object toIdType(BigInteger value) {
+        Class<?> javaType = identifier.getJavaType();
+        if (javaType == Long.class || javaType == long.class) {
+            return value.longValueExact();
+        }
+        if (javaType == Integer.class || javaType == int.class) {
+            return value.intValueExact();
+        }
+        if (javaType == Short.class || javaType == short.class) {
+            return value.shortValueExact();
+        }
+        if (javaType == Byte.class || javaType == byte.class) {
+            return value.byteValueExact();
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.jboss.logging.Logger;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Guard against persistence contexts that grow without bound in long transactions, where every flush dirty-checks
+ * all managed entities and slows down with each {@link EntityRepository#save(Object)}.
+ * <p>
+ * Enable it for a repository by declaring the guard as an interface constant and returning it from
+ * {@link EntityRepository#getPersistenceContextGuard()}:
+ * <pre>{@code
+ * PersistenceContextGuard GUARD = PersistenceContextGuard.warnAbove(10_000);
+ *
+ * @Override
+ * default PersistenceContextGuard getPersistenceContextGuard() { return GUARD; }
+ * }</pre>
+ * The guard checks the number of managed entities before each save persists or merges the entity. In
+ * {@link Mode#WARN} mode it logs a warning once per session when the number exceeds the limit. In the opt-in
+ * {@link Mode#FLUSH_AND_CLEAR} batch mode it flushes and clears the persistence context instead. The entity that
+ * {@code save()} returns is managed, but all previously managed entities are detached, so use it only in batch
+ * jobs that do not hold on to them.
+ */
+public final class PersistenceContextGuard {
+
+    private static final Logger LOG = Logger.getLogger(PersistenceContextGuard.class);
+
+    /**
+     * What the guard does when the persistence context exceeds the limit.
+     */
+    public enum Mode {
+        /**
+         * Log a warning once per session.
+         */
+        WARN,
+        /**
+         * Flush and clear the persistence context.
+         */
+        FLUSH_AND_CLEAR
+    }
+
+    private final int limit;
+    private final Mode mode;
+    private final Map<SessionImplementor, Boolean> warnedSessions = Collections.synchronizedMap(new WeakHashMap<>());
+    private final AtomicInteger peakSize = new AtomicInteger();
+    private final LongAdder warnings = new LongAdder();
+    private final LongAdder flushAndClears = new LongAdder();
+
+    private PersistenceContextGuard(int limit, Mode mode) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive, got " + limit);
+        }
+        this.limit = limit;
+        this.mode = mode;
+    }
+
+    /**
+     * @param limit Maximum number of managed entities.
+     * @return Guard that warns when the persistence context holds more managed entities than the limit.
+     */
+    public static PersistenceContextGuard warnAbove(int limit) {
+        return new PersistenceContextGuard(limit, Mode.WARN);
+    }
+
+    /**
+     * @param limit Maximum number of managed entities.
+     * @return Guard that flushes and clears the persistence context when it holds more managed entities than the
+     * limit.
+     */
+    public static PersistenceContextGuard flushAndClearAbove(int limit) {
+        return new PersistenceContextGuard(limit, Mode.FLUSH_AND_CLEAR);
+    }
+
+    /**
+     * Returns the number of entities managed by the persistence context of the entity manager.
+     *
+     * @param entityManager The entity manager.
+     * @return Number of managed entities.
+     */
+    public static int sizeOf(EntityManager entityManager) {
+        return entityManager.unwrap(SessionImplementor.class).getPersistenceContextInternal()
+                .getNumberOfManagedEntities();
+    }
+
+    /**
+     * @return Maximum number of managed entities.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return What the guard does when the persistence context exceeds the limit.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return Largest number of managed entities seen by the guard.
+     */
+    public int getPeakSize() {
+        return peakSize.get();
+    }
+
+    /**
+     * @return Number of logged warnings.
+     */
+    public long getWarningCount() {
+        return warnings.sum();
+    }
+
+    /**
+     * @return Number of times the persistence context was flushed and cleared.
+     */
+    public long getFlushAndClearCount() {
+        return flushAndClears.sum();
+    }
+
+    void check(EntityManager entityManager) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        int size = session.getPersistenceContextInternal().getNumberOfManagedEntities();
+        peakSize.accumulateAndGet(size, Math::max);
+        if (size <= limit) {
+            return;
+        }
+        if (mode == Mode.FLUSH_AND_CLEAR) {
+            session.flush();
+            session.clear();
+            flushAndClears.increment();
+        } else if (warnedSessions.putIfAbsent(session, Boolean.TRUE) == null) {
+            warnings.increment();
+            LOG.warnf("Persistence context holds %d managed entities, more than the limit of %d. Every flush "
+                    + "dirty-checks all of them, flush and clear periodically or use saveAll(Stream, int) in long "
+                    + "transactions.", size, limit);
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data;
+
+import java.io.Serializable;
+import java.util.function.Function;
+
+/**
+ * Compile-time metadata of a repository interface.
+ * <p>
+ * Implementations are generated as {@code <Repository>_Metadata} classes by the
+ * {@link ee.hiberspike.data.processor.RepositoryMetadataProcessor} annotation processor and registered with
+ * {@link java.util.ServiceLoader}. The metadata provides the entity class for
+ * {@link ExtendedEntityRepository#getEntityClass()} and a direct identifier accessor for
+ * {@link EntityRepository#getPrimaryKey(Object)}, so that neither needs runtime reflection.
+ *
+ * @param <E>  Entity type.
+ * @param <PK> Primary key type.
+ */
+public interface RepositoryMetadata<E, PK extends Serializable> {
+
+    /**
+     * @return The repository interface that the metadata describes.
+     */
+    Class<?> getRepositoryInterface();
+
+    /**
+     * @return The entity class {@code <E>} of the repository.
+     */
+    Class<E> getEntityClass();
+
+    /**
+     * @return The primary key class {@code <PK>} of the repository.
+     */
+    Class<PK> getPrimaryKeyClass();
+
+    /**
+     * Returns a function that reads the identifier attribute of an entity directly, null if the identifier is not
+     * accessible from the package of the repository or the entity has a composite identifier.
+     * <p>
+     * The function must not be applied to Hibernate proxies.
+     *
+     * @return Identifier accessor or null.
+     */
+    default Function<E, PK> getPrimaryKeyAccessor() {
+        return null;
+    }
+
+}
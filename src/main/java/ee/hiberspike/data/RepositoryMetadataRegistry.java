@@ -0,0 +1,176 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Resolves the entity class and the identifier accessor of repository implementation classes, from the generated
+ * {@link RepositoryMetadata} when it is available and from the type arguments of {@link EntityRepository} otherwise.
+ * Results are cached per implementation class.
+ */
+final class RepositoryMetadataRegistry {
+
+    // guarded by itself
+    private static final Map<ClassLoader, Map<Class<?>, RepositoryMetadata<?, ?>>> LOADED = new WeakHashMap<>();
+
+    private static final ClassValue<Resolved> RESOLVED = new ClassValue<>() {
+        @Override
+        protected Resolved computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private RepositoryMetadataRegistry() {
+    }
+
+    /**
+     * Returns the entity class of the given repository implementation class, see
+     * {@link ExtendedEntityRepository#getEntityClass()}.
+     *
+     * @param repositoryClass Repository implementation class.
+     * @return The entity class.
+     * @throws IllegalStateException if the entity class cannot be resolved.
+     */
+    static Class<?> entityClassOf(Class<?> repositoryClass) {
+        Class<?> entityClass = RESOLVED.get(repositoryClass).entityClass;
+        if (entityClass == null) {
+            throw new IllegalStateException("Unable to resolve the entity class of " + repositoryClass.getName()
+                    + ", add the hiberspike-data annotation processor to the compiler configuration or override"
+                    + " getEntityClass()");
+        }
+        return entityClass;
+    }
+
+    /**
+     * Returns the generated identifier accessor of the given repository implementation class.
+     *
+     * @param repositoryClass Repository implementation class.
+     * @return Identifier accessor or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    static <E, PK> Function<E, PK> primaryKeyAccessorOf(Class<?> repositoryClass) {
+        return (Function<E, PK>) RESOLVED.get(repositoryClass).primaryKeyAccessor;
+    }
+
+    private static Resolved resolve(Class<?> repositoryClass) {
+        RepositoryMetadata<?, ?> metadata = findMetadata(repositoryClass);
+        if (metadata != null) {
+            return new Resolved(metadata.getEntityClass(), metadata.getPrimaryKeyAccessor());
+        }
+        return new Resolved(rawClassOf(resolveTypeArgument(repositoryClass, Collections.emptyMap(), 0)), null);
+    }
+
+    /**
+     * Searches the interfaces of the class breadth-first, so that the most specific repository interface wins.
+     */
+    private static RepositoryMetadata<?, ?> findMetadata(Class<?> repositoryClass) {
+        Map<Class<?>, RepositoryMetadata<?, ?>> registered = loaded(repositoryClass.getClassLoader());
+        if (registered.isEmpty()) {
+            return null;
+        }
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        for (Class<?> type = repositoryClass; type != null; type = type.getSuperclass()) {
+            queue.add(type);
+        }
+        while (!queue.isEmpty()) {
+            Class<?> type = queue.poll();
+            RepositoryMetadata<?, ?> metadata = registered.get(type);
+            if (metadata != null) {
+                return metadata;
+            }
+            for (Class<?> superInterface : type.getInterfaces()) {
+                if (visited.add(superInterface)) {
+                    queue.add(superInterface);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Map<Class<?>, RepositoryMetadata<?, ?>> loaded(ClassLoader classLoader) {
+        synchronized (LOADED) {
+            return LOADED.computeIfAbsent(classLoader, loader -> {
+                Map<Class<?>, RepositoryMetadata<?, ?>> registered = new HashMap<>();
+                for (RepositoryMetadata<?, ?> metadata : ServiceLoader.load(RepositoryMetadata.class, loader)) {
+                    registered.put(metadata.getRepositoryInterface(), metadata);
+                }
+                return registered;
+            });
+        }
+    }
+
+    /**
+     * Resolves the type argument of {@link EntityRepository} at the given index by walking the generic supertypes
+     * and substituting type variables along the way.
+     */
+    private static Type resolveTypeArgument(Type type, Map<TypeVariable<?>, Type> bindings, int index) {
+        Class<?> rawType;
+        Map<TypeVariable<?>, Type> ownBindings;
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            rawType = (Class<?>) parameterizedType.getRawType();
+            TypeVariable<?>[] variables = rawType.getTypeParameters();
+            Type[] arguments = parameterizedType.getActualTypeArguments();
+            ownBindings = new HashMap<>();
+            for (int i = 0; i < variables.length; i++) {
+                Type argument = arguments[i];
+                ownBindings.put(variables[i], argument instanceof TypeVariable
+                        ? bindings.getOrDefault(argument, argument) : argument);
+            }
+            if (rawType == EntityRepository.class) {
+                return ownBindings.get(variables[index]);
+            }
+        } else if (type instanceof Class) {
+            rawType = (Class<?>) type;
+            ownBindings = Collections.emptyMap();
+        } else {
+            return null;
+        }
+        for (Type superInterface : rawType.getGenericInterfaces()) {
+            Type resolved = resolveTypeArgument(superInterface, ownBindings, index);
+            if (resolved != null) {
+                return resolved;
+            }
+        }
+        Type superclass = rawType.getGenericSuperclass();
+        return superclass == null ? null : resolveTypeArgument(superclass, ownBindings, index);
+    }
+
+    private static Class<?> rawClassOf(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return null;
+    }
+
+    private static final class Resolved {
+        private final Class<?> entityClass;
+        private final Function<?, ?> primaryKeyAccessor;
+
+        private Resolved(Class<?> entityClass, Function<?, ?> primaryKeyAccessor) {
+            this.entityClass = entityClass;
+            this.primaryKeyAccessor = primaryKeyAccessor;
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event of a repository operation: save (persist or merge), find, count, flush, refresh or
+ * remove.
+ * <p>
+ * The event is disabled by default. Enable it in the recording settings by name, for example
+ * {@code jcmd <pid> JFR.start settings=profile +ee.hiberspike.data.RepositoryOperation#enabled=true}, or with
+ * {@code recording.enable("ee.hiberspike.data.RepositoryOperation")}. When disabled, the event object is eliminated
+ * by the JIT compiler and the operation pays only for a check of the enabled flag. The event carries the thread
+ * and the start time, so it lines up with JDBC socket reads and GC pauses in JDK Mission Control.
+ */
+@Name(RepositoryOperationEvent.NAME)
+@Label("Repository Operation")
+@Category({"HiberSpike Data"})
+@Description("Entity repository operation")
+@StackTrace(false)
+public final class RepositoryOperationEvent extends Event {
+
+    /**
+     * Name of the event type in recordings.
+     */
+    public static final String NAME = "ee.hiberspike.data.RepositoryOperation";
+
+    @Label("Entity Class")
+    Class<?> entityClass;
+
+    @Label("Method")
+    @Description("Repository method")
+    String method;
+
+    @Label("Operation")
+    @Description("Entity manager operation: persist, merge, find, count, flush, refresh or remove")
+    String operation;
+
+    @Label("Rows")
+    @Description("Number of returned or affected entities")
+    int rows;
+
+    static RepositoryOperationEvent start() {
+        RepositoryOperationEvent event = new RepositoryOperationEvent();
+        event.begin();
+        return event;
+    }
+
+    void end(Class<?> entityClass, String method, String operation, int rows) {
+        end();
+        if (shouldCommit()) {
+            this.entityClass = entityClass;
+            this.method = method;
+            this.operation = operation;
+            this.rows = rows;
+            commit();
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data;
+
+/**
+ * Receives per-partition progress of {@link ExtendedEntityRepository#parallelScan}.
+ * <p>
+ * Called from the worker threads of the scan, so implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface ScanProgressListener {
+
+    /**
+     * Listener that ignores all progress.
+     */
+    ScanProgressListener NONE = (partition, partitions, rowsScanned, done) -> {
+    };
+
+    /**
+     * Called after each chunk of a partition has been handled and once more when the partition is done.
+     *
+     * @param partition   Zero-based index of the partition.
+     * @param partitions  Total number of partitions.
+     * @param rowsScanned Number of rows of the partition handled so far.
+     * @param done        Whether the partition has been scanned completely.
+     */
+    void onProgress(int partition, int partitions, long rowsScanned, boolean done);
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Statement inspector that passes the SQL statements to the {@link SqlCapture}s that are open on the current
+ * thread and leaves them unchanged. Statements are not retained when no capture is open.
+ * <p>
+ * Register it with the {@code hibernate.session_factory.statement_inspector} persistence unit property:
+ * <pre>{@code
+ * <property name="hibernate.session_factory.statement_inspector"
+ *           value="ee.hiberspike.data.monitoring.CapturingStatementInspector"/>
+ * }</pre>
+ * In Quarkus, extend it with a class annotated with {@code @PersistenceUnitExtension}.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String inspect(String sql) {
+        SqlCapture.capture(sql);
+        return sql;
+    }
+
+}
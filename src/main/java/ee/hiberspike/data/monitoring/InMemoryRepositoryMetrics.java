@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data.monitoring;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Default {@link RepositoryMetrics} that keeps call counts, failure counts, row counts and latency histograms
+ * per repository method in memory.
+ */
+public final class InMemoryRepositoryMetrics implements RepositoryMetrics {
+
+    private static final InMemoryRepositoryMetrics INSTANCE = new InMemoryRepositoryMetrics();
+
+    private final ConcurrentMap<String, ConcurrentMap<String, MethodMetrics>> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * @return Shared instance that is used when no other {@link RepositoryMetrics} has been configured.
+     */
+    public static InMemoryRepositoryMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void record(String repository, String method, long durationNanos, int rows, Throwable failure) {
+        getMethodMetrics(repository, method).record(durationNanos, rows, failure);
+    }
+
+    /**
+     * Returns the statistics of the given repository method, creating empty statistics if it has not been called.
+     *
+     * @param repository Simple name of the repository interface.
+     * @param method     Name of the repository method.
+     * @return Statistics of the method.
+     */
+    public MethodMetrics getMethodMetrics(String repository, String method) {
+        ConcurrentMap<String, MethodMetrics> methods = metrics.get(repository);
+        if (methods == null) {
+            methods = metrics.computeIfAbsent(repository, r -> new ConcurrentHashMap<>());
+        }
+        MethodMetrics methodMetrics = methods.get(method);
+        if (methodMetrics == null) {
+            methodMetrics = methods.computeIfAbsent(method, m -> new MethodMetrics());
+        }
+        return methodMetrics;
+    }
+
+    /**
+     * @return Statistics of all called methods keyed by {@code Repository.method}, sorted by key.
+     */
+    public Map<String, MethodMetrics> getAll() {
+        Map<String, MethodMetrics> all = new TreeMap<>();
+        metrics.forEach((repository, methods) ->
+                methods.forEach((method, methodMetrics) -> all.put(repository + "." + method, methodMetrics)));
+        return all;
+    }
+
+    /**
+     * Discards all statistics.
+     */
+    public void clear() {
+        metrics.clear();
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data.monitoring;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call statistics of a single repository method collected by {@link InMemoryRepositoryMetrics}.
+ */
+public final class MethodMetrics {
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    void record(long durationNanos, int rows, Throwable failure) {
+        calls.increment();
+        if (failure != null) {
+            failures.increment();
+        }
+        this.rows.add(rows);
+        latency.record(durationNanos);
+    }
+
+    /**
+     * @return Number of calls.
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return Number of calls that threw an exception.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return Total number of returned or affected rows.
+     */
+    public long getRows() {
+        return rows.sum();
+    }
+
+    /**
+     * @return Latency histogram of the calls.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RepositoryMetrics} adapter that records repository method calls with Micrometer.
+ * <p>
+ * Records the {@code hiberspike.repository.calls} timer and the {@code hiberspike.repository.rows} distribution
+ * summary tagged with {@code repository}, {@code method} and {@code outcome} ({@code success} or the simple name
+ * of the exception class). Requires {@code io.micrometer:micrometer-core} on the classpath, the library does not
+ * depend on it otherwise.
+ */
+public class MicrometerRepositoryMetrics implements RepositoryMetrics {
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Meters> meters = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry Registry of the meters.
+     */
+    public MicrometerRepositoryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void record(String repository, String method, long durationNanos, int rows, Throwable failure) {
+        String outcome = failure == null ? "success" : failure.getClass().getSimpleName();
+        String key = repository + '.' + method + '.' + outcome;
+        Meters methodMeters = meters.get(key);
+        if (methodMeters == null) {
+            methodMeters = meters.computeIfAbsent(key, k -> new Meters(
+                    Timer.builder("hiberspike.repository.calls")
+                            .tags("repository", repository, "method", method, "outcome", outcome)
+                            .publishPercentileHistogram()
+                            .register(registry),
+                    DistributionSummary.builder("hiberspike.repository.rows")
+                            .tags("repository", repository, "method", method, "outcome", outcome)
+                            .register(registry)));
+        }
+        methodMeters.calls.record(durationNanos, TimeUnit.NANOSECONDS);
+        methodMeters.rows.record(rows);
+    }
+
+    private static final class Meters {
+        private final Timer calls;
+        private final DistributionSummary rows;
+
+        private Meters(Timer calls, DistributionSummary rows) {
+            this.calls = calls;
+            this.rows = rows;
+        }
+    }
+
+}
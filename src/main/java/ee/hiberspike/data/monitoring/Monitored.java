@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data.monitoring;
+
+import jakarta.enterprise.util.AnnotationLiteral;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Interceptor binding that measures the calls of repository methods with {@link MonitoringInterceptor}.
+ * <p>
+ * CDI does not inherit interceptor bindings from interfaces, so annotating the repository interface has no effect.
+ * The binding is added to the generated repository implementations by {@link MonitoringExtension}.
+ */
+@Inherited
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Monitored {
+
+    /**
+     * Literal for adding the binding programmatically.
+     */
+    final class Literal extends AnnotationLiteral<Monitored> implements Monitored {
+        public static final Literal INSTANCE = new Literal();
+
+        private static final long serialVersionUID = 1L;
+    }
+
+}
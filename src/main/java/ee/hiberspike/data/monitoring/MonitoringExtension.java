@@ -0,0 +1,29 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data.monitoring;
+
+import ee.hiberspike.data.EntityRepository;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.spi.Extension;
+import jakarta.enterprise.inject.spi.ProcessAnnotatedType;
+
+/**
+ * CDI portable extension that adds the {@link Monitored} binding to all repository implementations.
+ * <p>
+ * The extension is opt-in, enable it in Weld based containers like WildFly by adding a
+ * {@code META-INF/services/jakarta.enterprise.inject.spi.Extension} file that contains
+ * {@code ee.hiberspike.data.monitoring.MonitoringExtension} to the application.
+ */
+public class MonitoringExtension implements Extension {
+
+    <T> void addMonitoredBinding(@Observes ProcessAnnotatedType<T> event) {
+        Class<T> type = event.getAnnotatedType().getJavaClass();
+        if (!type.isInterface() && EntityRepository.class.isAssignableFrom(type)) {
+            event.configureAnnotatedType().add(Monitored.Literal.INSTANCE);
+        }
+    }
+
+}
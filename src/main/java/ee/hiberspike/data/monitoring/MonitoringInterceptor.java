@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data.monitoring;
+
+import jakarta.annotation.Priority;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.lang.reflect.Method;
+
+/**
+ * CDI interceptor that measures the calls of {@link Monitored} repositories.
+ * <p>
+ * Records the calls into the {@link RepositoryMetrics} bean if the application provides one and into
+ * {@link RepositoryMonitor#getDefaultMetrics()} otherwise, and logs slow calls to the {@link SlowQueryLog}.
+ * <p>
+ * CDI containers intercept through a generated subclass, so calls that a repository makes to its own methods, such
+ * as {@code saveAndFlush()} calling {@code save()} and {@code flush()}, are intercepted as well. Such nested calls
+ * on the same repository instance are not recorded separately, only the outer call is, as with
+ * {@link RepositoryMonitor#monitor(Object, Class)}.
+ */
+@Monitored
+@Interceptor
+@Priority(Interceptor.Priority.LIBRARY_BEFORE)
+public class MonitoringInterceptor {
+
+    // repository instance whose monitored call is running on the current thread
+    private static final ThreadLocal<Object> CURRENT_TARGET = new ThreadLocal<>();
+
+    @Inject
+    Instance<RepositoryMetrics> metricsInstance;
+
+    private volatile RepositoryMetrics metrics;
+
+    @AroundInvoke
+    Object monitor(InvocationContext context) throws Exception {
+        Method method = context.getMethod();
+        Object target = context.getTarget();
+        Object outerTarget = CURRENT_TARGET.get();
+        if (!RepositoryMonitor.isMonitored(method) || outerTarget == target) {
+            return context.proceed();
+        }
+        CURRENT_TARGET.set(target);
+        try {
+            return RepositoryMonitor.invoke(getMetrics(), RepositoryMonitor.repositoryName(target.getClass()),
+                    method, context.getParameters(), context::proceed);
+        } finally {
+            if (outerTarget == null) {
+                CURRENT_TARGET.remove();
+            } else {
+                CURRENT_TARGET.set(outerTarget);
+            }
+        }
+    }
+
+    private RepositoryMetrics getMetrics() {
+        RepositoryMetrics current = metrics;
+        if (current == null) {
+            current = metricsInstance.isResolvable() ? metricsInstance.get() : RepositoryMonitor.getDefaultMetrics();
+            metrics = current;
+        }
+        return current;
+    }
+
+}
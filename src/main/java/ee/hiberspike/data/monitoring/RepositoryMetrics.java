@@ -0,0 +1,30 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data.monitoring;
+
+/**
+ * Service provider interface for recording repository method calls.
+ * <p>
+ * Calls are recorded by {@link MonitoringInterceptor} and {@link RepositoryMonitor#monitor}. By default they are
+ * recorded into {@link InMemoryRepositoryMetrics#getInstance()}. To use another implementation, for example
+ * {@link MicrometerRepositoryMetrics}, produce it as a CDI bean or pass it to
+ * {@link RepositoryMonitor#setDefaultMetrics(RepositoryMetrics)}.
+ * <p>
+ * Implementations are called on every repository method call and must be thread-safe and cheap.
+ */
+public interface RepositoryMetrics {
+
+    /**
+     * Records a repository method call.
+     *
+     * @param repository    Simple name of the repository interface, for example {@code BookRepository}.
+     * @param method        Name of the repository method.
+     * @param durationNanos Duration of the call in nanoseconds.
+     * @param rows          Number of returned or affected rows, see {@link RepositoryMonitor#rowsOf(Object)}.
+     * @param failure       Exception thrown by the call or null if it succeeded.
+     */
+    void record(String repository, String method, long durationNanos, int rows, Throwable failure);
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data.monitoring;
+
+import ee.hiberspike.data.EntityRepository;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Measures repository method calls and reports them to {@link RepositoryMetrics}.
+ * <p>
+ * Used by {@link MonitoringInterceptor} in CDI environments. Without CDI, wrap a repository with
+ * {@link #monitor(Object, Class)}:
+ * <pre>{@code
+ * BookRepository books = RepositoryMonitor.monitor(new BookRepository_(entityManager), BookRepository.class);
+ * }</pre>
+ * Configuration getters like {@code getEntityClass()}, {@code entityManager()} and the methods of {@link Object}
+ * are not measured.
+ */
+public final class RepositoryMonitor {
+
+    private static final ClassValue<String> REPOSITORY_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return resolveRepositoryName(type);
+        }
+    };
+
+    private static volatile RepositoryMetrics defaultMetrics = InMemoryRepositoryMetrics.getInstance();
+
+    private RepositoryMonitor() {
+    }
+
+    /**
+     * Work of a repository method call.
+     */
+    @FunctionalInterface
+    public interface Invocation {
+        Object proceed() throws Exception;
+    }
+
+    /**
+     * @return Metrics that calls are recorded into when no other metrics have been given.
+     */
+    public static RepositoryMetrics getDefaultMetrics() {
+        return defaultMetrics;
+    }
+
+    /**
+     * Sets the metrics that calls are recorded into when no other metrics have been given, for example a
+     * {@link MicrometerRepositoryMetrics}. The default is {@link InMemoryRepositoryMetrics#getInstance()}.
+     *
+     * @param metrics The metrics.
+     */
+    public static void setDefaultMetrics(RepositoryMetrics metrics) {
+        defaultMetrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Returns a proxy that measures the calls of the given interface methods on the repository and records them
+     * into the default metrics.
+     *
+     * @param repository     Repository implementation, usually the generated {@code _} class.
+     * @param repositoryType Repository interface that the proxy implements.
+     * @param <R>            Repository type.
+     * @return The measuring proxy.
+     */
+    public static <R> R monitor(R repository, Class<R> repositoryType) {
+        return monitor(repository, repositoryType, null);
+    }
+
+    /**
+     * Returns a proxy that measures the calls of the given interface methods on the repository.
+     *
+     * @param repository     Repository implementation, usually the generated {@code _} class.
+     * @param repositoryType Repository interface that the proxy implements.
+     * @param metrics        Metrics that the calls are recorded into or null for the default metrics.
+     * @param <R>            Repository type.
+     * @return The measuring proxy.
+     */
+    public static <R> R monitor(R repository, Class<R> repositoryType, RepositoryMetrics metrics) {
+        Objects.requireNonNull(repository);
+        if (!repositoryType.isInterface()) {
+            throw new IllegalArgumentException(repositoryType.getName() + " is not an interface");
+        }
+        String repositoryName = repositoryType.getSimpleName();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!isMonitored(method)) {
+                return invokeOn(repository, method, args);
+            }
+            return invoke(metrics != null ? metrics : defaultMetrics, repositoryName, method, args,
+                    () -> invokeOn(repository, method, args));
+        };
+        return repositoryType.cast(Proxy.newProxyInstance(repositoryType.getClassLoader(),
+                new Class<?>[]{repositoryType}, handler));
+    }
+
+    /**
+     * Runs and measures a repository method call and logs it to the {@link SlowQueryLog} if it was slow.
+     *
+     * @param metrics    Metrics that the call is recorded into.
+     * @param repository Simple name of the repository interface, see {@link #repositoryName(Class)}.
+     * @param method     The called method.
+     * @param arguments  Arguments of the call.
+     * @param invocation Work of the call.
+     * @return Result of the call.
+     * @throws Exception Exception thrown by the call.
+     */
+    public static Object invoke(RepositoryMetrics metrics, String repository, Method method, Object[] arguments,
+                                Invocation invocation) throws Exception {
+        SqlCapture capture = SlowQueryLog.isEnabled() ? SqlCapture.start() : null;
+        long start = System.nanoTime();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Exception | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            long duration = System.nanoTime() - start;
+            int rows = failure == null ? rowsOf(result) : 0;
+            metrics.record(repository, method.getName(), duration, rows, failure);
+            if (capture != null) {
+                capture.close();
+                if (SlowQueryLog.isSlow(duration)) {
+                    SlowQueryLog.log(repository, method.getName(), arguments, duration, rows, failure,
+                            capture.getStatements());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the simple name of the repository interface that the given class implements, or the simple name of
+     * the class without the {@code _} suffix of generated implementations if it implements none.
+     *
+     * @param type Repository implementation class, possibly a CDI proxy subclass.
+     * @return Name of the repository.
+     */
+    public static String repositoryName(Class<?> type) {
+        return REPOSITORY_NAMES.get(type);
+    }
+
+    /**
+     * Returns true if calls of the given method are measured, false for the methods of {@link Object},
+     * {@code entityManager()} and the parameterless {@code get...()} configuration getters.
+     *
+     * @param method Repository method.
+     * @return True if calls of the method are measured.
+     */
+    public static boolean isMonitored(Method method) {
+        if (method.getDeclaringClass() == Object.class) {
+            return false;
+        }
+        String name = method.getName();
+        return method.getParameterCount() > 0 || !(name.startsWith("get") || name.equals("entityManager"));
+    }
+
+    /**
+     * Returns the number of rows in the result of a repository method: the size of collections, maps and arrays,
+     * 0 or 1 for {@link Optional}, the value of {@code int} and {@code long} results of bulk update and delete
+     * methods, 1 for {@code true} and 0 for {@code false} results of existence checks, 0 for null and 1 for any other
+     * result.
+     *
+     * @param result Result of the call.
+     * @return Number of rows.
+     */
+    public static int rowsOf(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Map) {
+            return ((Map<?, ?>) result).size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Integer || result instanceof Long) {
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(0, ((Number) result).longValue()));
+        }
+        if (result instanceof Boolean) {
+            return (Boolean) result ? 1 : 0;
+        }
+        if (result.getClass().isArray()) {
+            return Array.getLength(result);
+        }
+        return 1;
+    }
+
+    private static Object invokeOn(Object repository, Method method, Object[] args) throws Exception {
+        try {
+            return method.invoke(repository, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String resolveRepositoryName(Class<?> type) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Class<?> iface : current.getInterfaces()) {
+                if (EntityRepository.class.isAssignableFrom(iface) && iface != EntityRepository.class) {
+                    return iface.getSimpleName();
+                }
+            }
+        }
+        String name = type.getSimpleName();
+        return name.endsWith("_") ? name.substring(0, name.length() - 1) : name;
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data.monitoring;
+
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs repository method calls that take longer than a threshold with the repository interface and method, the
+ * arguments, the number of returned or affected rows, the elapsed time and the SQL statements of the call.
+ * <p>
+ * The log is disabled by default. It is configured with system properties that are read on startup:
+ * <ul>
+ * <li>{@code hiberspike.slow-query-log.threshold} - threshold in milliseconds, enables the log,</li>
+ * <li>{@code hiberspike.slow-query-log.log-arguments} - {@code true} to log the argument values, by default they
+ * are masked as {@code ?} as they may contain personal data.</li>
+ * </ul>
+ * The calls are measured by {@link MonitoringInterceptor} and {@link RepositoryMonitor#monitor}, statements are
+ * only included when {@link CapturingStatementInspector} is registered. Entries are logged at WARN level to the
+ * {@code ee.hiberspike.data.SlowQueryLog} category.
+ */
+public final class SlowQueryLog {
+
+    private static final Logger LOG = Logger.getLogger("ee.hiberspike.data.SlowQueryLog");
+
+    private static final int MAX_ARGUMENT_LENGTH = 100;
+
+    private static volatile long thresholdNanos = readThreshold();
+    private static volatile boolean logArguments = Boolean.getBoolean("hiberspike.slow-query-log.log-arguments");
+
+    private SlowQueryLog() {
+    }
+
+    /**
+     * Sets the threshold over which calls are logged, overriding the system property.
+     *
+     * @param threshold The threshold or null to disable the log.
+     */
+    public static void setThreshold(Duration threshold) {
+        thresholdNanos = threshold == null ? -1 : threshold.toNanos();
+    }
+
+    /**
+     * @return The threshold over which calls are logged or null if the log is disabled.
+     */
+    public static Duration getThreshold() {
+        long threshold = thresholdNanos;
+        return threshold < 0 ? null : Duration.ofNanos(threshold);
+    }
+
+    /**
+     * Sets whether argument values are logged or masked, overriding the system property.
+     *
+     * @param enabled True to log the argument values.
+     */
+    public static void setLogArguments(boolean enabled) {
+        logArguments = enabled;
+    }
+
+    static boolean isEnabled() {
+        return thresholdNanos >= 0;
+    }
+
+    static boolean isSlow(long durationNanos) {
+        long threshold = thresholdNanos;
+        return threshold >= 0 && durationNanos >= threshold;
+    }
+
+    static void log(String repository, String method, Object[] arguments, long durationNanos, int rows,
+                    Throwable failure, List<String> statements) {
+        StringBuilder entry = new StringBuilder(256)
+                .append("Slow repository call ").append(repository).append('.').append(method)
+                .append(formatArguments(arguments))
+                .append(" took ").append(TimeUnit.NANOSECONDS.toMillis(durationNanos)).append(" ms");
+        if (failure == null) {
+            entry.append(" and returned ").append(rows).append(rows == 1 ? " row" : " rows");
+        } else {
+            entry.append(" and failed with ").append(failure.getClass().getName());
+        }
+        for (String statement : statements) {
+            entry.append("\n    ").append(statement);
+        }
+        LOG.warn(entry);
+    }
+
+    private static String formatArguments(Object[] arguments) {
+        if (arguments == null || arguments.length == 0) {
+            return "()";
+        }
+        StringBuilder formatted = new StringBuilder("(");
+        for (int i = 0; i < arguments.length; i++) {
+            if (i > 0) {
+                formatted.append(", ");
+            }
+            if (!logArguments) {
+                formatted.append('?');
+                continue;
+            }
+            String value = String.valueOf(arguments[i]);
+            if (value.length() > MAX_ARGUMENT_LENGTH) {
+                formatted.append(value, 0, MAX_ARGUMENT_LENGTH).append("...");
+            } else {
+                formatted.append(value);
+            }
+        }
+        return formatted.append(')').toString();
+    }
+
+    private static long readThreshold() {
+        String threshold = System.getProperty("hiberspike.slow-query-log.threshold");
+        if (threshold == null || threshold.isBlank()) {
+            return -1;
+        }
+        try {
+            return TimeUnit.MILLISECONDS.toNanos(Long.parseLong(threshold.trim()));
+        } catch (NumberFormatException e) {
+            LOG.warnf("Ignoring invalid hiberspike.slow-query-log.threshold value '%s'", threshold);
+            return -1;
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Captures the SQL statements that Hibernate prepares on the current thread between {@link #start()} and
+ * {@link #close()}.
+ * <p>
+ * Statements are only captured when {@link CapturingStatementInspector} is registered as the statement inspector
+ * of the persistence unit. Captures can be nested, statements are added to all captures that are open on the
+ * thread.
+ * <pre>{@code
+ * try (SqlCapture capture = SqlCapture.start()) {
+ *     bookRepository.findAll();
+ *     List<String> statements = capture.getStatements();
+ * }
+ * }</pre>
+ */
+public final class SqlCapture implements AutoCloseable {
+
+    private static final ThreadLocal<SqlCapture> CURRENT = new ThreadLocal<>();
+
+    private final SqlCapture parent;
+    private final List<String> statements = new ArrayList<>();
+    private boolean closed;
+
+    private SqlCapture(SqlCapture parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Starts capturing statements on the current thread.
+     *
+     * @return The capture that must be closed on the same thread.
+     */
+    public static SqlCapture start() {
+        SqlCapture capture = new SqlCapture(CURRENT.get());
+        CURRENT.set(capture);
+        return capture;
+    }
+
+    /**
+     * @return True if a capture is open on the current thread.
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    static void capture(String sql) {
+        for (SqlCapture capture = CURRENT.get(); capture != null; capture = capture.parent) {
+            capture.statements.add(sql);
+        }
+    }
+
+    /**
+     * @return Statements captured so far in the order they were prepared.
+     */
+    public List<String> getStatements() {
+        return Collections.unmodifiableList(statements);
+    }
+
+    /**
+     * Stops capturing statements. Captured statements remain available.
+     *
+     * @throws IllegalStateException if a nested capture has not been closed.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        if (CURRENT.get() != this) {
+            throw new IllegalStateException("Nested SQL capture has not been closed");
+        }
+        closed = true;
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+}
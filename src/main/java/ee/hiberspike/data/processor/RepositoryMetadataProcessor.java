@@ -0,0 +1,303 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a {@code <Repository>_Metadata} implementation of {@link ee.hiberspike.data.RepositoryMetadata} for
+ * every repository interface that extends {@code EntityRepository<E, PK>} with concrete type arguments and registers
+ * the generated classes in {@code META-INF/services/ee.hiberspike.data.RepositoryMetadata}.
+ * <p>
+ * The entity and primary key classes are resolved from the type arguments at compile time. The identifier accessor
+ * reads the {@code @Id} or {@code @EmbeddedId} field of the entity, or its getter when the field is not accessible
+ * from the package of the repository, and is left out when neither is accessible.
+ * <p>
+ * The processor is registered in {@code META-INF/services/javax.annotation.processing.Processor}, so the compiler
+ * runs it automatically when the library is on the class path and no processor path is configured. Builds that set
+ * an explicit processor path, such as {@code annotationProcessorPaths} of the Maven compiler plugin, must add the
+ * library to it next to {@code hibernate-jpamodelgen}. Disable it with {@code -proc:none} or by selecting the
+ * processors explicitly with {@code -processor}.
+ */
+@SupportedAnnotationTypes("*")
+public class RepositoryMetadataProcessor extends AbstractProcessor {
+
+    private static final String ENTITY_REPOSITORY = "ee.hiberspike.data.EntityRepository";
+    private static final String REPOSITORY_METADATA = "ee.hiberspike.data.RepositoryMetadata";
+    private static final String GENERATED = "javax.annotation.processing.Generated";
+    private static final String SUFFIX = "_Metadata";
+    private static final Set<String> ID_ANNOTATIONS = Set.of("jakarta.persistence.Id",
+            "jakarta.persistence.EmbeddedId");
+
+    private final Set<String> generatedClasses = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        TypeElement entityRepository = processingEnv.getElementUtils().getTypeElement(ENTITY_REPOSITORY);
+        if (entityRepository == null) {
+            return false;
+        }
+        List<TypeElement> types = new ArrayList<>();
+        collectTypes(ElementFilter.typesIn(roundEnv.getRootElements()), types);
+        for (TypeElement type : types) {
+            if (type.getKind() == ElementKind.INTERFACE && type.getTypeParameters().isEmpty()) {
+                List<? extends TypeMirror> arguments = entityRepositoryArguments(type.asType(), entityRepository);
+                if (arguments != null) {
+                    generate(type, arguments.get(0), arguments.get(1));
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void collectTypes(Iterable<TypeElement> types, List<TypeElement> collected) {
+        for (TypeElement type : types) {
+            collected.add(type);
+            collectTypes(ElementFilter.typesIn(type.getEnclosedElements()), collected);
+        }
+    }
+
+    private List<? extends TypeMirror> entityRepositoryArguments(TypeMirror type, TypeElement entityRepository) {
+        for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type)) {
+            if (supertype.getKind() != TypeKind.DECLARED) {
+                continue;
+            }
+            DeclaredType declaredType = (DeclaredType) supertype;
+            if (declaredType.asElement().equals(entityRepository)) {
+                return declaredType.getTypeArguments();
+            }
+            List<? extends TypeMirror> arguments = entityRepositoryArguments(supertype, entityRepository);
+            if (arguments != null) {
+                return arguments;
+            }
+        }
+        return null;
+    }
+
+    private void generate(TypeElement repository, TypeMirror entityType, TypeMirror primaryKeyType) {
+        Elements elements = processingEnv.getElementUtils();
+        PackageElement packageElement = elements.getPackageOf(repository);
+        if (!isConcrete(entityType) || !isConcrete(primaryKeyType)) {
+            return;
+        }
+        TypeElement entity = (TypeElement) ((DeclaredType) entityType).asElement();
+        TypeElement primaryKey = (TypeElement) ((DeclaredType) primaryKeyType).asElement();
+        if (!isAccessible(repository, packageElement) || !isAccessible(entity, packageElement)
+                || !isAccessible(primaryKey, packageElement)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Repository metadata is not generated for "
+                    + repository.getQualifiedName() + ", its types are not accessible from its package", repository);
+            return;
+        }
+
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String simpleName = generatedSimpleName(repository);
+        String className = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        String repositoryName = repository.getQualifiedName().toString();
+        String entityName = entity.getQualifiedName().toString();
+        String primaryKeyName = primaryKey.getQualifiedName().toString();
+        String accessor = primaryKeyAccessor(entity, primaryKeyType, packageElement);
+
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(className, repository)
+                .openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            if (elements.getTypeElement(GENERATED) != null) {
+                out.println("@" + GENERATED + "(\"" + getClass().getName() + "\")");
+            }
+            out.println("public final class " + simpleName + " implements " + REPOSITORY_METADATA
+                    + "<" + entityName + ", " + primaryKeyName + "> {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public Class<" + repositoryName + "> getRepositoryInterface() {");
+            out.println("        return " + repositoryName + ".class;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public Class<" + entityName + "> getEntityClass() {");
+            out.println("        return " + entityName + ".class;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public Class<" + primaryKeyName + "> getPrimaryKeyClass() {");
+            out.println("        return " + primaryKeyName + ".class;");
+            out.println("    }");
+            if (accessor != null) {
+                out.println();
+                out.println("    @Override");
+                out.println("    public java.util.function.Function<" + entityName + ", " + primaryKeyName
+                        + "> getPrimaryKeyAccessor() {");
+                out.println("        return entity -> entity." + accessor + ";");
+                out.println("    }");
+            }
+            out.println("}");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write " + className + ": " + e.getMessage(), repository);
+            return;
+        }
+        generatedClasses.add(className);
+    }
+
+    /**
+     * Returns the expression that reads the identifier from {@code entity.}, null if there is no single identifier
+     * attribute that is accessible from the package and assignable to the primary key type.
+     */
+    private String primaryKeyAccessor(TypeElement entity, TypeMirror primaryKeyType, PackageElement packageElement) {
+        List<Element> ids = new ArrayList<>();
+        for (TypeElement type = entity; type != null; type = superclassOf(type)) {
+            for (Element member : type.getEnclosedElements()) {
+                if ((member.getKind() == ElementKind.FIELD || member.getKind() == ElementKind.METHOD)
+                        && !member.getModifiers().contains(Modifier.STATIC) && isId(member)) {
+                    ids.add(member);
+                }
+            }
+        }
+        if (ids.size() != 1) {
+            return null;
+        }
+        Element id = ids.get(0);
+        ExecutableElement getter;
+        if (id.getKind() == ElementKind.FIELD) {
+            if (isAccessible(id, packageElement) && isAssignable(id.asType(), primaryKeyType)) {
+                return id.getSimpleName().toString();
+            }
+            getter = getterOf(entity, (VariableElement) id);
+        } else {
+            getter = (ExecutableElement) id;
+        }
+        if (getter == null || !getter.getParameters().isEmpty() || !isAccessible(getter, packageElement)
+                || !isAssignable(getter.getReturnType(), primaryKeyType)) {
+            return null;
+        }
+        return getter.getSimpleName() + "()";
+    }
+
+    private ExecutableElement getterOf(TypeElement entity, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        Types types = processingEnv.getTypeUtils();
+        for (ExecutableElement method : ElementFilter.methodsIn(
+                processingEnv.getElementUtils().getAllMembers(entity))) {
+            String methodName = method.getSimpleName().toString();
+            if ((methodName.equals("get" + capitalized) || methodName.equals("is" + capitalized))
+                    && method.getParameters().isEmpty() && !method.getModifiers().contains(Modifier.STATIC)
+                    && types.isSameType(method.getReturnType(), field.asType())) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private boolean isAssignable(TypeMirror idType, TypeMirror primaryKeyType) {
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror boxed = idType.getKind().isPrimitive()
+                ? types.boxedClass((PrimitiveType) idType).asType() : idType;
+        return types.isAssignable(boxed, primaryKeyType);
+    }
+
+    private static boolean isId(Element member) {
+        for (AnnotationMirror annotation : member.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (ID_ANNOTATIONS.contains(annotationType.getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+    }
+
+    private static boolean isConcrete(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).getTypeArguments().isEmpty();
+    }
+
+    /**
+     * Returns true if the element and its enclosing types can be referenced from a class in the given package.
+     */
+    private boolean isAccessible(Element element, PackageElement packageElement) {
+        for (Element e = element; e != null && e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            Set<Modifier> modifiers = e.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!modifiers.contains(Modifier.PUBLIC)
+                    && !processingEnv.getElementUtils().getPackageOf(e).equals(packageElement)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String generatedSimpleName(TypeElement repository) {
+        StringBuilder name = new StringBuilder(repository.getSimpleName());
+        for (Element e = repository.getEnclosingElement(); e.getKind() != ElementKind.PACKAGE;
+             e = e.getEnclosingElement()) {
+            name.insert(0, e.getSimpleName() + "_");
+        }
+        return name.append(SUFFIX).toString();
+    }
+
+    private void writeServiceFile() {
+        if (generatedClasses.isEmpty()) {
+            return;
+        }
+        String resource = "META-INF/services/" + REPOSITORY_METADATA;
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", resource);
+            try (Writer writer = file.openWriter()) {
+                for (String className : generatedClasses) {
+                    writer.write(className + "\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write " + resource + ": " + e.getMessage());
+        }
+    }
+
+}
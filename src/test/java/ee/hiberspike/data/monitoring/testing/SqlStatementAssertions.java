@@ -0,0 +1,116 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data.monitoring.testing;
+
+import ee.hiberspike.data.monitoring.CapturingStatementInspector;
+import ee.hiberspike.data.monitoring.SqlCapture;
+
+import java.util.function.Supplier;
+
+/**
+ * Test assertions on the number of SQL statements that a block of code executes, for locking in database round
+ * trips and catching N+1 selects or merges that start selecting:
+ * <pre>{@code
+ * assertStatements(1, 0, 0, 0, () -> bookRepository.findAll(0, 10));
+ * }</pre>
+ * Requires {@link CapturingStatementInspector} to be registered. Statements are captured on the current thread
+ * only. Inserts, updates and deletes are executed when the persistence context is flushed, so flush at the end of
+ * the block to include them.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    /**
+     * Runs the given work and counts the SQL statements that it executes.
+     *
+     * @param work The work.
+     * @return Counts of the statements.
+     */
+    public static StatementCounts countStatements(Runnable work) {
+        try (SqlCapture capture = SqlCapture.start()) {
+            work.run();
+            return StatementCounts.of(capture.getStatements());
+        }
+    }
+
+    /**
+     * Runs the given work and asserts the number of SQL statements that it executes by type.
+     *
+     * @param selects Expected number of selects.
+     * @param inserts Expected number of inserts.
+     * @param updates Expected number of updates.
+     * @param deletes Expected number of deletes.
+     * @param work    The work.
+     * @param <T>     Result type.
+     * @return Result of the work.
+     * @throws AssertionError if the numbers of statements differ from the expected numbers.
+     */
+    public static <T> T assertStatements(int selects, int inserts, int updates, int deletes, Supplier<T> work) {
+        try (SqlCapture capture = SqlCapture.start()) {
+            T result = work.get();
+            check(selects, inserts, updates, deletes, StatementCounts.of(capture.getStatements()));
+            return result;
+        }
+    }
+
+    /**
+     * Runs the given work and asserts the number of SQL statements that it executes by type.
+     *
+     * @param selects Expected number of selects.
+     * @param inserts Expected number of inserts.
+     * @param updates Expected number of updates.
+     * @param deletes Expected number of deletes.
+     * @param work    The work.
+     * @throws AssertionError if the numbers of statements differ from the expected numbers.
+     */
+    public static void assertStatements(int selects, int inserts, int updates, int deletes, Runnable work) {
+        check(selects, inserts, updates, deletes, countStatements(work));
+    }
+
+    /**
+     * Runs the given work and asserts that it executes the given number of selects and no other statements.
+     *
+     * @param selects Expected number of selects.
+     * @param work    The work.
+     * @param <T>     Result type.
+     * @return Result of the work.
+     * @throws AssertionError if the numbers of statements differ from the expected numbers.
+     */
+    public static <T> T assertSelects(int selects, Supplier<T> work) {
+        return assertStatements(selects, 0, 0, 0, work);
+    }
+
+    /**
+     * Runs the given work and asserts that it executes the given number of selects and no other statements.
+     *
+     * @param selects Expected number of selects.
+     * @param work    The work.
+     * @throws AssertionError if the numbers of statements differ from the expected numbers.
+     */
+    public static void assertSelects(int selects, Runnable work) {
+        assertStatements(selects, 0, 0, 0, work);
+    }
+
+    private static void check(int selects, int inserts, int updates, int deletes, StatementCounts counts) {
+        if (counts.getSelects() == selects && counts.getInserts() == inserts
+                && counts.getUpdates() == updates && counts.getDeletes() == deletes) {
+            return;
+        }
+        StringBuilder message = new StringBuilder("Expected ")
+                .append(selects).append(" selects, ").append(inserts).append(" inserts, ")
+                .append(updates).append(" updates, ").append(deletes).append(" deletes but got ").append(counts);
+        if (counts.getStatements().isEmpty()) {
+            message.append(", is CapturingStatementInspector registered as the statement inspector?");
+        }
+        for (String statement : counts.getStatements()) {
+            message.append("\n    ").append(statement);
+        }
+        throw new AssertionError(message.toString());
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package ee.hiberspike.data.monitoring.testing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Numbers of captured SQL statements by type.
+ */
+public final class StatementCounts {
+
+    private final int selects;
+    private final int inserts;
+    private final int updates;
+    private final int deletes;
+    private final List<String> statements;
+
+    private StatementCounts(int selects, int inserts, int updates, int deletes, List<String> statements) {
+        this.selects = selects;
+        this.inserts = inserts;
+        this.updates = updates;
+        this.deletes = deletes;
+        this.statements = statements;
+    }
+
+    /**
+     * Counts the given statements by their leading keyword. Leading comments and parentheses are skipped,
+     * {@code with} queries are counted as selects and {@code merge} statements as updates.
+     *
+     * @param statements SQL statements.
+     * @return Counts of the statements.
+     */
+    public static StatementCounts of(List<String> statements) {
+        int selects = 0;
+        int inserts = 0;
+        int updates = 0;
+        int deletes = 0;
+        for (String statement : statements) {
+            switch (keywordOf(statement)) {
+                case "select":
+                case "with":
+                    selects++;
+                    break;
+                case "insert":
+                    inserts++;
+                    break;
+                case "update":
+                case "merge":
+                    updates++;
+                    break;
+                case "delete":
+                    deletes++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return new StatementCounts(selects, inserts, updates, deletes,
+                Collections.unmodifiableList(new ArrayList<>(statements)));
+    }
+
+    /**
+     * @return Number of selects.
+     */
+    public int getSelects() {
+        return selects;
+    }
+
+    /**
+     * @return Number of inserts.
+     */
+    public int getInserts() {
+        return inserts;
+    }
+
+    /**
+     * @return Number of updates and merges.
+     */
+    public int getUpdates() {
+        return updates;
+    }
+
+    /**
+     * @return Number of deletes.
+     */
+    public int getDeletes() {
+        return deletes;
+    }
+
+    /**
+     * @return All captured statements in the order they were prepared.
+     */
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    @Override
+    public String toString() {
+        return selects + " selects, " + inserts + " inserts, " + updates + " updates, " + deletes + " deletes";
+    }
+
+    private static String keywordOf(String statement) {
+        int i = 0;
+        int length = statement.length();
+        while (i < length) {
+            char c = statement.charAt(i);
+            if (Character.isWhitespace(c) || c == '(') {
+                i++;
+            } else if (statement.startsWith("/*", i)) {
+                int end = statement.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else {
+                break;
+            }
+        }
+        int start = i;
+        while (i < length && Character.isLetter(statement.charAt(i))) {
+            i++;
+        }
+        return statement.substring(start, i).toLowerCase(Locale.ROOT);
+    }
+
+}
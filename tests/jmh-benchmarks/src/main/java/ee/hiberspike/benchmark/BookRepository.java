@@ -0,0 +1,17 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package ee.hiberspike.benchmark;
+
+import ee.hiberspike.data.ExtendedEntityRepository;
+import org.hibernate.annotations.processing.Find;
+
+import java.util.List;
+
+public interface BookRepository extends ExtendedEntityRepository<Book, Long> {
+
+    @Find
+    List<Book> findByAuthor(String author);
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package ee.hiberspike.benchmark;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+
+/**
+ * Embedded H2 database with {@link #ROWS} books, shared by all threads of a benchmark run.
+ */
+@State(Scope.Benchmark)
+public class Database {
+
+    public static final int ROWS = 10_000;
+
+    SessionFactory sessionFactory;
+    List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Book.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_HBM2DDL_DATABASE_ACTION, "drop-and-create")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .setProperty(AvailableSettings.POOL_SIZE, "20")
+                .buildSessionFactory();
+        sessionFactory.inStatelessTransaction(session -> insertBooks(session));
+        ids = sessionFactory.fromSession(session ->
+                session.createSelectionQuery("select id from Book order by id", Long.class).getResultList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    /**
+     * Opens a session and begins a transaction that the caller must roll back with {@link #rollback(Session)}.
+     */
+    Session openTransaction() {
+        Session session = sessionFactory.openSession();
+        session.beginTransaction();
+        return session;
+    }
+
+    static void rollback(Session session) {
+        Transaction transaction = session.getTransaction();
+        if (transaction.isActive()) {
+            transaction.rollback();
+        }
+        session.close();
+    }
+
+    private static void insertBooks(StatelessSession session) {
+        for (int i = 0; i < ROWS; i++) {
+            session.insert(new Book("Title " + i, "Author " + i % 100));
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package ee.hiberspike.benchmark;
+
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@code findBy()} from the database and from the persistence context and of {@code count()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindBenchmark {
+
+    private Session session;
+    private BookRepository repository;
+    private List<Long> ids;
+    private Long managedId;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp(Database database) {
+        session = database.openTransaction();
+        session.setDefaultReadOnly(true);
+        repository = new BookRepository_(session);
+        ids = database.ids;
+        managedId = ids.get(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        Database.rollback(session);
+    }
+
+    /**
+     * {@code findBy()} of a different book on every call with an empty persistence context, that is a select.
+     */
+    @Benchmark
+    public Book findBy() {
+        Book book = repository.findBy(ids.get(next));
+        next = (next + 1) % ids.size();
+        session.clear();
+        return book;
+    }
+
+    /**
+     * {@code findBy()} of a book that is already managed by the persistence context.
+     */
+    @Benchmark
+    public Book findByManaged() {
+        return repository.findBy(managedId);
+    }
+
+    @Benchmark
+    public Long count() {
+        return repository.count();
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package ee.hiberspike.benchmark;
+
+import org.hibernate.Session;
+import org.hibernate.query.KeyedPage;
+import org.hibernate.query.KeyedResultList;
+import org.hibernate.query.Page;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@code findAll(Page)} at increasing offsets, where the database skips more rows on every page,
+ * against {@code findAll(KeyedPage)} at the same pages, where it seeks to the key of the previous page.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * Page number, the last one is near the end of the {@link Database#ROWS} books.
+     */
+    @Param({"0", "50", "490"})
+    public int pageNumber;
+
+    private Session session;
+    private BookRepository repository;
+    private Page page;
+    private KeyedPage<Book> keyedPage;
+
+    @Setup(Level.Iteration)
+    public void setUp(Database database) {
+        session = database.openTransaction();
+        session.setDefaultReadOnly(true);
+        repository = new BookRepository_(session);
+        page = Page.page(PAGE_SIZE, pageNumber);
+        keyedPage = repository.firstKeyedPage(PAGE_SIZE);
+        for (int i = 0; i < pageNumber; i++) {
+            keyedPage = repository.findAll(keyedPage).getNextPage();
+        }
+        session.clear();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        Database.rollback(session);
+    }
+
+    @Benchmark
+    public List<Book> findAllPage() {
+        List<Book> books = repository.findAll(page);
+        session.clear();
+        return books;
+    }
+
+    @Benchmark
+    public KeyedResultList<Book> findAllKeyedPage() {
+        KeyedResultList<Book> books = repository.findAll(keyedPage);
+        session.clear();
+        return books;
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package ee.hiberspike.benchmark;
+
+import jakarta.persistence.PersistenceUnitUtil;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@code getPrimaryKey()} against the {@link PersistenceUnitUtil#getIdentifier(Object)} baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimaryKeyBenchmark {
+
+    private Session session;
+    private BookRepository repository;
+    private PersistenceUnitUtil persistenceUnitUtil;
+    private Book book;
+
+    @Setup(Level.Iteration)
+    public void setUp(Database database) {
+        session = database.openTransaction();
+        repository = new BookRepository_(session);
+        persistenceUnitUtil = database.sessionFactory.getPersistenceUnitUtil();
+        book = session.find(Book.class, database.ids.get(0));
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        Database.rollback(session);
+    }
+
+    @Benchmark
+    public Long getPrimaryKey() {
+        return repository.getPrimaryKey(book);
+    }
+
+    @Benchmark
+    public Object persistenceUnitUtilGetIdentifier() {
+        return persistenceUnitUtil.getIdentifier(book);
+    }
+
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package ee.hiberspike.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares JMH results with the committed baseline and fails when throughput or allocation per operation
+ * regresses beyond the tolerance.
+ * <p>
+ * Usage, in the benchmark project directory after running the benchmarks:
+ * <pre>
+ * java -cp target/benchmarks.jar ee.hiberspike.benchmark.RegressionGate [options]
+ *
+ *   --results FILE               JMH JSON results, target/jmh-result.json by default
+ *   --baseline FILE              baseline, jmh-baseline.json by default
+ *   --tolerance FRACTION         allowed score regression, 0.10 by default
+ *   --allocation-tolerance FRACTION
+ *                                allowed gc.alloc.rate.norm growth, 0.05 by default
+ *   --allow-missing              ignore baseline benchmarks that are missing from the results, for example
+ *                                when only some of the benchmarks were run
+ *   --update-baseline            write the results to the baseline instead of comparing
+ * </pre>
+ * Throughput regresses when it decreases, the other JMH modes when the time per operation increases. A baseline
+ * benchmark that is missing from the results counts as a regression unless {@code --allow-missing} is given.
+ * Allocation changes below {@value #ALLOCATION_SLACK_BYTES} bytes per operation are ignored as noise. Exits with
+ * status 1 on regression and 2 on invalid input.
+ */
+public final class RegressionGate {
+
+    static final String DEFAULT_BASELINE = "jmh-baseline.json";
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private static final String PACKAGE_PREFIX = RegressionGate.class.getPackageName() + ".";
+    private static final double ALLOCATION_SLACK_BYTES = 16;
+
+    private RegressionGate() {
+    }
+
+    public static void main(String[] args) {
+        Path results = Paths.get(BenchmarkRunner.DEFAULT_RESULT);
+        Path baseline = Paths.get(DEFAULT_BASELINE);
+        double tolerance = 0.10;
+        double allocationTolerance = 0.05;
+        boolean allowMissing = false;
+        boolean updateBaseline = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--results":
+                        results = Paths.get(args[++i]);
+                        break;
+                    case "--baseline":
+                        baseline = Paths.get(args[++i]);
+                        break;
+                    case "--tolerance":
+                        tolerance = Double.parseDouble(args[++i]);
+                        break;
+                    case "--allocation-tolerance":
+                        allocationTolerance = Double.parseDouble(args[++i]);
+                        break;
+                    case "--allow-missing":
+                        allowMissing = true;
+                        break;
+                    case "--update-baseline":
+                        updateBaseline = true;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            Map<String, Result> current = readResults(results);
+            if (updateBaseline) {
+                writeBaseline(baseline, current);
+                System.out.println("Wrote " + current.size() + " benchmark results to " + baseline);
+                return;
+            }
+            int regressions = compare(readBaseline(baseline), current, tolerance, allocationTolerance,
+                    allowMissing);
+            if (regressions > 0) {
+                System.out.println(regressions + " benchmark regressions beyond tolerance");
+                System.exit(1);
+            }
+            System.out.println("No benchmark regressions beyond tolerance");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Benchmark comparison failed: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    static int compare(Map<String, Result> baseline, Map<String, Result> current,
+                       double tolerance, double allocationTolerance, boolean allowMissing) {
+        int regressions = 0;
+        System.out.printf(Locale.ROOT, "%-60s %14s %14s %9s %12s %12s %9s%n", "Benchmark", "Baseline", "Current",
+                "Change", "Base B/op", "B/op", "Change");
+        for (Map.Entry<String, Result> entry : baseline.entrySet()) {
+            Result before = entry.getValue();
+            Result after = current.get(entry.getKey());
+            if (after == null) {
+                System.out.printf(Locale.ROOT, "%-60s missing from results%s%n", entry.getKey(),
+                        allowMissing ? "" : "  REGRESSION");
+                if (!allowMissing) {
+                    regressions++;
+                }
+                continue;
+            }
+            if (!before.mode.equals(after.mode) || !before.unit.equals(after.unit)) {
+                System.out.printf(Locale.ROOT, "%-60s mode or unit changed from %s %s to %s %s%n", entry.getKey(),
+                        before.mode, before.unit, after.mode, after.unit);
+                regressions++;
+                continue;
+            }
+            double scoreChange = (after.score - before.score) / before.score;
+            boolean scoreRegressed = "thrpt".equals(before.mode) ? -scoreChange > tolerance : scoreChange > tolerance;
+            boolean allocationRegressed = !Double.isNaN(before.allocation) && !Double.isNaN(after.allocation)
+                    && after.allocation > before.allocation * (1 + allocationTolerance) + ALLOCATION_SLACK_BYTES;
+            double allocationChange = before.allocation > 0
+                    ? (after.allocation - before.allocation) / before.allocation : Double.NaN;
+            System.out.printf(Locale.ROOT, "%-60s %14.3f %14.3f %8.1f%% %12.1f %12.1f %8.1f%%%s%n",
+                    entry.getKey(), before.score, after.score, scoreChange * 100,
+                    before.allocation, after.allocation, allocationChange * 100,
+                    scoreRegressed || allocationRegressed ? "  REGRESSION" : "");
+            if (scoreRegressed || allocationRegressed) {
+                regressions++;
+            }
+        }
+        for (String key : current.keySet()) {
+            if (!baseline.containsKey(key)) {
+                System.out.printf(Locale.ROOT, "%-60s not in baseline%n", key);
+            }
+        }
+        return regressions;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Result> readResults(Path file) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        for (Object item : (List<Object>) Json.parse(Files.readString(file, StandardCharsets.UTF_8))) {
+            Map<String, Object> benchmark = (Map<String, Object>) item;
+            Map<String, Object> primary = (Map<String, Object>) benchmark.get("primaryMetric");
+            Map<String, Object> secondary = (Map<String, Object>) benchmark.get("secondaryMetrics");
+            Map<String, Object> allocation = secondary == null ? null
+                    : (Map<String, Object>) secondary.get(ALLOCATION_METRIC);
+            String key = keyOf((String) benchmark.get("benchmark"), (Map<String, Object>) benchmark.get("params"));
+            results.put(key, new Result((String) benchmark.get("mode"), number(primary.get("score")),
+                    (String) primary.get("scoreUnit"), allocation == null ? Double.NaN : number(allocation.get("score"))));
+        }
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Result> readBaseline(Path file) throws IOException {
+        Map<String, Result> baseline = new TreeMap<>();
+        Map<String, Object> root = (Map<String, Object>) Json.parse(Files.readString(file, StandardCharsets.UTF_8));
+        for (Object item : (List<Object>) root.get("benchmarks")) {
+            Map<String, Object> benchmark = (Map<String, Object>) item;
+            Object allocation = benchmark.get("allocation");
+            baseline.put((String) benchmark.get("benchmark"), new Result((String) benchmark.get("mode"),
+                    number(benchmark.get("score")), (String) benchmark.get("scoreUnit"),
+                    allocation == null ? Double.NaN : number(allocation)));
+        }
+        return baseline;
+    }
+
+    static void writeBaseline(Path file, Map<String, Result> results) throws IOException {
+        List<Object> benchmarks = new ArrayList<>();
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            Map<String, Object> benchmark = new LinkedHashMap<>();
+            benchmark.put("benchmark", entry.getKey());
+            benchmark.put("mode", entry.getValue().mode);
+            benchmark.put("score", entry.getValue().score);
+            benchmark.put("scoreUnit", entry.getValue().unit);
+            if (!Double.isNaN(entry.getValue().allocation)) {
+                benchmark.put("allocation", entry.getValue().allocation);
+            }
+            benchmarks.add(benchmark);
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("jdk", System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+        root.put("benchmarks", benchmarks);
+        Files.writeString(file, Json.write(root), StandardCharsets.UTF_8);
+    }
+
+    private static String keyOf(String benchmark, Map<String, Object> params) {
+        StringBuilder key = new StringBuilder(benchmark.startsWith(PACKAGE_PREFIX)
+                ? benchmark.substring(PACKAGE_PREFIX.length()) : benchmark);
+        if (params != null) {
+            new TreeMap<>(params).forEach((name, value) -> key.append(':').append(name).append('=').append(value));
+        }
+        return key.toString();
+    }
+
+    private static double number(Object value) {
+        if (value instanceof Double) {
+            return (Double) value;
+        }
+        if (value instanceof String) {
+            return Double.parseDouble((String) value);
+        }
+        throw new IllegalArgumentException("Expected a number, got " + value);
+    }
+
+    static final class Result {
+        final String mode;
+        final double score;
+        final String unit;
+        final double allocation;
+
+        Result(String mode, double score, String unit, double allocation) {
+            this.mode = mode;
+            this.score = score;
+            this.unit = unit;
+            this.allocation = allocation;
+        }
+    }
+
+}
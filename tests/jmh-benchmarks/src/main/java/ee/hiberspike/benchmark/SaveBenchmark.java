@@ -0,0 +1,92 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package ee.hiberspike.benchmark;
+
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the persist and merge paths of {@code save()} and of {@code saveAndFlush()}.
+ * <p>
+ * Each iteration runs in a transaction that is rolled back afterward, so the database does not grow between
+ * iterations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveBenchmark {
+
+    private static final int FLUSH_INTERVAL = 1_000;
+
+    private Session session;
+    private BookRepository repository;
+    private Book detached;
+    private int unflushed;
+
+    @Setup(Level.Iteration)
+    public void setUp(Database database) {
+        session = database.openTransaction();
+        repository = new BookRepository_(session);
+        detached = session.find(Book.class, database.ids.get(0));
+        session.clear();
+        unflushed = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        Database.rollback(session);
+    }
+
+    /**
+     * {@code save()} of a new entity, including the batched insert amortized over {@link #FLUSH_INTERVAL} saves.
+     */
+    @Benchmark
+    public Book savePersist() {
+        Book book = repository.save(new Book("New title", "New author"));
+        if (++unflushed == FLUSH_INTERVAL) {
+            session.flush();
+            session.clear();
+            unflushed = 0;
+        }
+        return book;
+    }
+
+    /**
+     * {@code save()} of a detached unchanged entity, that is the select of {@code merge()}.
+     */
+    @Benchmark
+    public Book saveMerge() {
+        Book book = repository.save(detached);
+        session.clear();
+        return book;
+    }
+
+    /**
+     * {@code saveAndFlush()} of a new entity, that is a persist followed by an unbatched insert.
+     */
+    @Benchmark
+    public Book saveAndFlush() {
+        Book book = repository.saveAndFlush(new Book("New title", "New author"));
+        session.clear();
+        return book;
+    }
+
+}
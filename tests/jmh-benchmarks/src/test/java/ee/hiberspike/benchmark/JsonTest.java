@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package ee.hiberspike.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonTest {
+
+    @Test
+    void should_parse_nested_objects_and_arrays() {
+        // when
+        Object value = Json.parse(" { \"a\" : [1, 2.5, -3e2], \"b\": {\"c\": true, \"d\": false, \"e\": null},"
+                + " \"f\": [], \"g\": {} } ");
+
+        // then
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("a", List.of(1.0, 2.5, -300.0));
+        Map<String, Object> b = new LinkedHashMap<>();
+        b.put("c", Boolean.TRUE);
+        b.put("d", Boolean.FALSE);
+        b.put("e", null);
+        expected.put("b", b);
+        expected.put("f", List.of());
+        expected.put("g", Map.of());
+        assertEquals(expected, value);
+    }
+
+    @Test
+    void should_parse_numbers_as_doubles() {
+        assertEquals(9.528680116108098E-4, Json.parse("9.528680116108098E-4"));
+        assertEquals(-0.5, Json.parse("-0.5"));
+        assertEquals(1e10, Json.parse("1E+10"));
+    }
+
+    @Test
+    void should_parse_string_escapes() {
+        assertEquals("a\"b\\c/d\b\f\n\r\t\u00e9", Json.parse("\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u00e9\""));
+    }
+
+    @Test
+    void should_parse_null() {
+        assertNull(Json.parse("null"));
+    }
+
+    @Test
+    void should_reject_invalid_input() {
+        for (String invalid : Arrays.asList("", "{", "[1, 2", "{\"a\" 1}", "[1; 2]", "\"abc", "tru", "1 2",
+                "{\"a\": x}", "\"\\u12\"")) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parse(invalid), invalid);
+        }
+    }
+
+    @Test
+    void should_write_what_it_parses() {
+        // given
+        Map<String, Object> benchmark = new LinkedHashMap<>();
+        benchmark.put("benchmark", "PageBenchmark.findAllPage:pageNumber=0");
+        benchmark.put("score", 5.211153367257313);
+        benchmark.put("allocation", 9.528680116108098E-4);
+        benchmark.put("note", "quote \" backslash \\ newline \n");
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("jdk", "OpenJDK 17");
+        root.put("benchmarks", List.of(benchmark));
+        root.put("empty", List.of());
+
+        // when
+        String json = Json.write(root);
+
+        // then
+        assertEquals(root, Json.parse(json));
+    }
+
+    @Test
+    void should_write_indented_output() {
+        // given
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("a", List.of(1.0, "b"));
+
+        // then
+        assertEquals("{\n  \"a\": [\n    1.0,\n    \"b\"\n  ]\n}\n", Json.write(root));
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package ee.hiberspike.benchmark;
+
+import ee.hiberspike.benchmark.RegressionGate.Result;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RegressionGateTest {
+
+    private static final double TOLERANCE = 0.10;
+    private static final double ALLOCATION_TOLERANCE = 0.05;
+
+    @Test
+    void should_pass_within_tolerance() {
+        // given
+        Map<String, Result> baseline = Map.of("A.find", throughput(100, 1000));
+        Map<String, Result> current = Map.of("A.find", throughput(91, 1040));
+
+        // then
+        assertEquals(0, RegressionGate.compare(baseline, current, TOLERANCE, ALLOCATION_TOLERANCE, false));
+    }
+
+    @Test
+    void should_fail_when_throughput_drops() {
+        // given
+        Map<String, Result> baseline = Map.of("A.find", throughput(100, 1000));
+        Map<String, Result> current = Map.of("A.find", throughput(89, 1000));
+
+        // then
+        assertEquals(1, RegressionGate.compare(baseline, current, TOLERANCE, ALLOCATION_TOLERANCE, false));
+    }
+
+    @Test
+    void should_fail_when_time_per_operation_grows() {
+        // given
+        Map<String, Result> baseline = Map.of("A.find", new Result("avgt", 100, "us/op", Double.NaN));
+        Map<String, Result> current = Map.of("A.find", new Result("avgt", 111, "us/op", Double.NaN));
+
+        // then
+        assertEquals(1, RegressionGate.compare(baseline, current, TOLERANCE, ALLOCATION_TOLERANCE, false));
+    }
+
+    @Test
+    void should_fail_when_allocation_grows() {
+        // given
+        Map<String, Result> baseline = Map.of("A.find", throughput(100, 1000));
+        Map<String, Result> current = Map.of("A.find", throughput(100, 1100));
+
+        // then
+        assertEquals(1, RegressionGate.compare(baseline, current, TOLERANCE, ALLOCATION_TOLERANCE, false));
+    }
+
+    @Test
+    void should_ignore_allocation_growth_below_slack() {
+        // given
+        Map<String, Result> baseline = Map.of("A.find", throughput(100, 0.001));
+        Map<String, Result> current = Map.of("A.find", throughput(100, 8));
+
+        // then
+        assertEquals(0, RegressionGate.compare(baseline, current, TOLERANCE, ALLOCATION_TOLERANCE, false));
+    }
+
+    @Test
+    void should_fail_when_mode_changes() {
+        // given
+        Map<String, Result> baseline = Map.of("A.find", throughput(100, 1000));
+        Map<String, Result> current = Map.of("A.find", new Result("avgt", 100, "ops/ms", 1000));
+
+        // then
+        assertEquals(1, RegressionGate.compare(baseline, current, TOLERANCE, ALLOCATION_TOLERANCE, false));
+    }
+
+    @Test
+    void should_fail_when_baseline_benchmark_is_missing() {
+        // given
+        Map<String, Result> baseline = Map.of("A.find", throughput(100, 1000), "A.count", throughput(50, 500));
+        Map<String, Result> current = Map.of("A.find", throughput(100, 1000));
+
+        // then
+        assertEquals(1, RegressionGate.compare(baseline, current, TOLERANCE, ALLOCATION_TOLERANCE, false));
+        assertEquals(0, RegressionGate.compare(baseline, current, TOLERANCE, ALLOCATION_TOLERANCE, true));
+    }
+
+    @Test
+    void should_ignore_benchmarks_not_in_baseline() {
+        // given
+        Map<String, Result> baseline = Map.of("A.find", throughput(100, 1000));
+        Map<String, Result> current = Map.of("A.find", throughput(100, 1000), "A.count", throughput(1, 1));
+
+        // then
+        assertEquals(0, RegressionGate.compare(baseline, current, TOLERANCE, ALLOCATION_TOLERANCE, false));
+    }
+
+    private static Result throughput(double score, double allocation) {
+        return new Result("thrpt", score, "ops/ms", allocation);
+    }
+
+}
@@ -9,9 +9,4 @@ public interface AuthorRepositoryExtended extends ExtendedEntityRepository<Autho
 
     @Find
     Optional<Author> findBySsn(String ssn);
-
-    @Override
-    default Class<Author> getEntityClass() {
-        return Author.class;
-    }
 }
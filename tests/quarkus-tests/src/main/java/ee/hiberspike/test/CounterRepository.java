@@ -0,0 +1,11 @@
+package ee.hiberspike.test;
+
+import ee.hiberspike.data.EntityRepository;
+import org.hibernate.annotations.processing.Find;
+
+import java.util.Optional;
+
+public interface CounterRepository extends EntityRepository<Counter, Long> {
+    @Find
+    Optional<Counter> findByName(String name);
+}
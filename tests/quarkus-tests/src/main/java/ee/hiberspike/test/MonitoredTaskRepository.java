@@ -0,0 +1,22 @@
+package ee.hiberspike.test;
+
+import ee.hiberspike.data.monitoring.Monitored;
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.inject.Typed;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+/**
+ * {@link TaskRepositoryExtended} with the {@link Monitored} binding, which {@code MonitoringExtension} adds to the
+ * generated implementations in Weld. ArC does not run portable extensions, so the binding is declared on a subclass.
+ */
+@Monitored
+@Dependent
+@Typed(MonitoredTaskRepository.class)
+public class MonitoredTaskRepository extends TaskRepositoryExtended_ {
+
+    @Inject
+    public MonitoredTaskRepository(EntityManager entityManager) {
+        super(entityManager);
+    }
+}
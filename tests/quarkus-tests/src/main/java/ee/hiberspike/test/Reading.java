@@ -0,0 +1,12 @@
+package ee.hiberspike.test;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+@Entity
+public class Reading {
+    @Id
+    public long id;
+
+    public String label;
+}
@@ -0,0 +1,11 @@
+package ee.hiberspike.test;
+
+import ee.hiberspike.data.ExtendedEntityRepository;
+
+public interface ReadingRepository extends ExtendedEntityRepository<Reading, Long> {
+
+    @Override
+    default Class<Reading> getEntityClass() {
+        return Reading.class;
+    }
+}
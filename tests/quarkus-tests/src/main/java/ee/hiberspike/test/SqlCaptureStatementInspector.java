@@ -0,0 +1,8 @@
+package ee.hiberspike.test;
+
+import ee.hiberspike.data.monitoring.CapturingStatementInspector;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+
+@PersistenceUnitExtension
+public class SqlCaptureStatementInspector extends CapturingStatementInspector {
+}
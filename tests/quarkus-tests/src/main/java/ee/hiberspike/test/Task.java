@@ -1,17 +1,25 @@
 package ee.hiberspike.test;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import org.hibernate.annotations.FetchProfile;
 import org.hibernate.envers.Audited;
 
 @Audited
 @Entity
+@FetchProfile(name = "task-with-author",
+        fetchOverrides = @FetchProfile.FetchOverride(entity = Task.class, association = "author"))
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
     public long id;
 
     public String description;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    public Author author;
 }
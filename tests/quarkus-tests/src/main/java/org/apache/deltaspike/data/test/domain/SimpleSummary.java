@@ -0,0 +1,12 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.apache.deltaspike.data.test.domain;
+
+/**
+ * Projection of {@link Simple} for list screens.
+ */
+public record SimpleSummary(Long id, String name, Boolean enabled)
+{
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.apache.deltaspike.data.test.service;
+
+import ee.hiberspike.data.EntityRepository;
+import ee.hiberspike.data.PersistenceContextGuard;
+import org.apache.deltaspike.data.test.domain.Simple;
+
+public interface SimpleBatchRepository extends EntityRepository<Simple, Long> {
+
+    PersistenceContextGuard GUARD = PersistenceContextGuard.flushAndClearAbove(2);
+
+    @Override
+    default PersistenceContextGuard getPersistenceContextGuard() {
+        return GUARD;
+    }
+
+}
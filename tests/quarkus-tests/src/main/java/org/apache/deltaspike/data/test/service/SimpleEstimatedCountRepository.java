@@ -0,0 +1,27 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.apache.deltaspike.data.test.service;
+
+import ee.hiberspike.data.CountStrategy;
+import ee.hiberspike.data.ExtendedEntityRepository;
+import org.apache.deltaspike.data.test.domain.Simple;
+import org.hibernate.annotations.processing.Find;
+
+public interface SimpleEstimatedCountRepository extends ExtendedEntityRepository<Simple, Long> {
+
+    @Find
+    Simple findByName(String name);
+
+    @Override
+    default CountStrategy getCountStrategy() {
+        return CountStrategy.ESTIMATED;
+    }
+
+    @Override
+    default Class<Simple> getEntityClass() {
+        return Simple.class;
+    }
+
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.apache.deltaspike.data.test.service;
+
+import ee.hiberspike.data.CountStrategy;
+import ee.hiberspike.data.ExtendedEntityRepository;
+import org.apache.deltaspike.data.test.domain.Simple;
+import org.hibernate.annotations.processing.Find;
+
+import java.time.Duration;
+
+public interface SimpleExpiredCountRepository extends ExtendedEntityRepository<Simple, Long> {
+
+    @Find
+    Simple findByName(String name);
+
+    @Override
+    default CountStrategy getCountStrategy() {
+        return CountStrategy.CACHED;
+    }
+
+    @Override
+    default Duration getCountCacheTimeToLive() {
+        return Duration.ZERO;
+    }
+
+}
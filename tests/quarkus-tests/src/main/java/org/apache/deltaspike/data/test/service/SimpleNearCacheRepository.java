@@ -0,0 +1,31 @@
+/*
+ * Copyright 2025 Mart Somermaa
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.apache.deltaspike.data.test.service;
+
+import ee.hiberspike.data.ExtendedEntityRepository;
+import ee.hiberspike.data.NearCache;
+import org.apache.deltaspike.data.test.domain.Simple;
+import org.hibernate.annotations.processing.Find;
+
+import java.time.Duration;
+
+public interface SimpleNearCacheRepository extends ExtendedEntityRepository<Simple, Long> {
+
+    NearCache<Long, Simple> NEAR_CACHE = new NearCache<>(2, Duration.ofMinutes(1));
+
+    @Find
+    Simple findByName(String name);
+
+    @Override
+    default NearCache<Long, Simple> getNearCache() {
+        return NEAR_CACHE;
+    }
+
+    @Override
+    default Class<Simple> getEntityClass() {
+        return Simple.class;
+    }
+
+}
@@ -5,6 +5,7 @@ import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @QuarkusTest
 class AuthorRepositoryExtendedTest {
@@ -18,4 +19,15 @@ class AuthorRepositoryExtendedTest {
         assertEquals(2, authorsCount);
     }
 
+    @Test
+    void getEntityClass_andGetPrimaryKey_useGeneratedMetadata() {
+        var metadata = new AuthorRepositoryExtended_Metadata();
+        assertEquals(AuthorRepositoryExtended.class, metadata.getRepositoryInterface());
+        assertNotNull(metadata.getPrimaryKeyAccessor());
+
+        assertEquals(Author.class, authorRepository.getEntityClass());
+        Author author = authorRepository.findBy("126-24-9867");
+        assertEquals("126-24-9867", authorRepository.getPrimaryKey(author));
+    }
+
 }
\ No newline at end of file
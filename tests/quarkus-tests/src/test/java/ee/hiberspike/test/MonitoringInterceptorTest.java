@@ -0,0 +1,52 @@
+package ee.hiberspike.test;
+
+import ee.hiberspike.data.monitoring.InMemoryRepositoryMetrics;
+import ee.hiberspike.data.monitoring.MethodMetrics;
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QuarkusTest
+@TestTransaction
+class MonitoringInterceptorTest {
+
+    private static final String REPOSITORY = "TaskRepositoryExtended";
+
+    @Inject
+    MonitoredTaskRepository taskRepository;
+
+    @Test
+    void interceptor_recordsRepositoryCall() {
+        MethodMetrics findBy = metrics("findBy");
+        long calls = findBy.getCalls();
+        long rows = findBy.getRows();
+
+        taskRepository.findBy(1L);
+
+        assertEquals(calls + 1, findBy.getCalls());
+        assertEquals(rows + 1, findBy.getRows());
+    }
+
+    @Test
+    void interceptor_recordsSelfInvocationOnlyAsOuterCall() {
+        long saveAndFlushCalls = metrics("saveAndFlush").getCalls();
+        long saveCalls = metrics("save").getCalls();
+        long flushCalls = metrics("flush").getCalls();
+        Task task = new Task();
+        task.description = "Monitored task";
+
+        // saveAndFlush() calls save() and flush(), ArC intercepts these self-invocations as well
+        taskRepository.saveAndFlush(task);
+
+        assertEquals(saveAndFlushCalls + 1, metrics("saveAndFlush").getCalls());
+        assertEquals(saveCalls, metrics("save").getCalls());
+        assertEquals(flushCalls, metrics("flush").getCalls());
+    }
+
+    private static MethodMetrics metrics(String method) {
+        return InMemoryRepositoryMetrics.getInstance().getMethodMetrics(REPOSITORY, method);
+    }
+}
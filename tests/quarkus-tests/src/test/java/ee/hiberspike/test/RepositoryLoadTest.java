@@ -0,0 +1,285 @@
+package ee.hiberspike.test;
+
+import ee.hiberspike.data.monitoring.LatencyHistogram;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import org.apache.deltaspike.data.test.domain.Simple;
+import org.apache.deltaspike.data.test.service.SimpleRepository;
+import org.hibernate.StaleStateException;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mixed read/write load against {@link SimpleRepository}, {@link TaskRepository}, {@link AuthorRepository} and
+ * {@link CounterRepository} from many concurrent workers, each operation in its own transaction. The contended
+ * updates increment a few versioned {@link Counter}s, so that concurrent workers run into optimistic lock conflicts.
+ * <p>
+ * Excluded from the default test run, run it with {@code mvn test -Pload}. The concurrency levels and the number of
+ * operations per level are set with the {@code load.concurrency} (default {@code 10,100,400}) and
+ * {@code load.operations} (default {@code 4000}) system properties. Workers run on virtual threads on Java 21+ and
+ * on a fixed thread pool of the concurrency level otherwise.
+ */
+@QuarkusTest
+@Tag("load")
+class RepositoryLoadTest {
+
+    private static final Logger LOG = Logger.getLogger(RepositoryLoadTest.class);
+
+    private static final String PREFIX = "load-";
+    private static final int SEED_ROWS = 100;
+    private static final int AUTHOR_NAMES = 10;
+    private static final int COUNTERS = 10;
+
+    private static final String OPTIMISTIC_LOCK = "optimistic lock";
+    private static final String LOCK_TIMEOUT = "lock timeout";
+    private static final String POOL_TIMEOUT = "pool timeout";
+
+    @Inject
+    SimpleRepository simpleRepository;
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    AuthorRepository authorRepository;
+
+    @Inject
+    CounterRepository counterRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    private final List<Long> simpleIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < SEED_ROWS; i++) {
+                simpleIds.add(simpleRepository.save(new Simple(PREFIX + i)).getId());
+                taskRepository.save(newTask(PREFIX + i));
+                authorRepository.save(newAuthor(PREFIX + i % AUTHOR_NAMES));
+            }
+            for (int i = 0; i < COUNTERS; i++) {
+                counterRepository.save(newCounter(PREFIX + i));
+            }
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (String entity : List.of("Simple", "Task", "Author", "Counter")) {
+                String attribute = entity.equals("Task") ? "description" : "name";
+                entityManager.createQuery("delete from " + entity + " where " + attribute + " like :prefix")
+                        .setParameter("prefix", PREFIX + "%")
+                        .executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void mixedWorkload_completesWithoutUnexpectedErrorsAtEachConcurrencyLevel() throws Exception {
+        int operations = Integer.getInteger("load.operations", 4000);
+        List<LevelResult> results = new ArrayList<>();
+        for (int concurrency : concurrencyLevels()) {
+            results.add(runLevel(concurrency, operations));
+        }
+
+        LOG.info(report(results));
+
+        for (LevelResult result : results) {
+            assertEquals(operations, result.latency().getCount());
+            assertTrue(result.unexpectedErrors().isEmpty(),
+                    () -> "Unexpected errors at concurrency " + result.concurrency() + ": "
+                            + result.unexpectedErrors());
+        }
+    }
+
+    private LevelResult runLevel(int concurrency, int operations) throws Exception {
+        AtomicInteger remaining = new AtomicInteger(operations);
+        LatencyHistogram latency = new LatencyHistogram();
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        Map<String, Throwable> unexpectedErrors = new ConcurrentHashMap<>();
+
+        ExecutorService executor = newExecutor(concurrency);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> work(remaining, latency, errors, unexpectedErrors)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((kind, count) -> errorCounts.put(kind, count.sum()));
+        return new LevelResult(concurrency, elapsed, latency, errorCounts, unexpectedErrors);
+    }
+
+    private void work(AtomicInteger remaining, LatencyHistogram latency, Map<String, LongAdder> errors,
+                      Map<String, Throwable> unexpectedErrors) {
+        ManagedContext requestContext = Arc.container().requestContext();
+        requestContext.activate();
+        try {
+            while (remaining.getAndDecrement() > 0) {
+                long start = System.nanoTime();
+                try {
+                    QuarkusTransaction.requiringNew().run(this::randomOperation);
+                } catch (RuntimeException e) {
+                    String kind = classify(e);
+                    errors.computeIfAbsent(kind, k -> new LongAdder()).increment();
+                    if (!isExpected(kind)) {
+                        unexpectedErrors.putIfAbsent(kind, e);
+                    }
+                }
+                latency.record(System.nanoTime() - start);
+            }
+        } finally {
+            requestContext.terminate();
+        }
+    }
+
+    /**
+     * 70% reads and 30% writes, the read-modify-write updates contend on the versioned counters and the bulk
+     * updates on the seeded rows.
+     */
+    private void randomOperation() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int row = random.nextInt(SEED_ROWS);
+        int operation = random.nextInt(100);
+        if (operation < 40) {
+            simpleRepository.findOptionalByName(PREFIX + row);
+        } else if (operation < 55) {
+            taskRepository.findByDescription(PREFIX + row);
+        } else if (operation < 70) {
+            authorRepository.findByName(PREFIX + row % AUTHOR_NAMES);
+        } else if (operation < 80) {
+            counterRepository.findByName(PREFIX + row % COUNTERS).ifPresent(counter -> {
+                counter.total++;
+                counterRepository.saveAndFlush(counter);
+            });
+        } else if (operation < 88) {
+            simpleRepository.updateNameForId(PREFIX + row, simpleIds.get(row));
+        } else if (operation < 94) {
+            taskRepository.save(newTask(PREFIX + "new"));
+        } else {
+            authorRepository.save(newAuthor(PREFIX + "new"));
+        }
+    }
+
+    private static String classify(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException || cause instanceof StaleStateException) {
+                return OPTIMISTIC_LOCK;
+            }
+            if (cause instanceof LockTimeoutException || cause instanceof PessimisticLockException) {
+                return LOCK_TIMEOUT;
+            }
+            String message = String.valueOf(cause.getMessage()).toLowerCase(Locale.ROOT);
+            if (message.contains("acquisition timeout")) {
+                return POOL_TIMEOUT;
+            }
+            if (message.contains("timeout trying to lock")) {
+                return LOCK_TIMEOUT;
+            }
+        }
+        return error.getClass().getSimpleName();
+    }
+
+    private static boolean isExpected(String kind) {
+        return kind.equals(OPTIMISTIC_LOCK) || kind.equals(LOCK_TIMEOUT) || kind.equals(POOL_TIMEOUT);
+    }
+
+    private static String report(List<LevelResult> results) {
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                "Repository load test%n%11s %10s %12s %9s %9s %9s  %s%n",
+                "concurrency", "operations", "ops/s", "p50 ms", "p99 ms", "max ms", "errors"));
+        for (LevelResult result : results) {
+            LatencyHistogram latency = result.latency();
+            report.append(String.format(Locale.ROOT, "%11d %10d %12.1f %9.2f %9.2f %9.2f  %s%n",
+                    result.concurrency(),
+                    latency.getCount(),
+                    latency.getCount() / (result.elapsedNanos() / 1e9),
+                    latency.getValueAtPercentile(50, TimeUnit.MICROSECONDS) / 1000.0,
+                    latency.getValueAtPercentile(99, TimeUnit.MICROSECONDS) / 1000.0,
+                    latency.getMax(TimeUnit.MICROSECONDS) / 1000.0,
+                    result.errors().isEmpty() ? "none" : result.errors()));
+        }
+        return report.toString();
+    }
+
+    private static int[] concurrencyLevels() {
+        return Arrays.stream(System.getProperty("load.concurrency", "10,100,400").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+    }
+
+    /**
+     * Virtual thread per task on Java 21+, the test sources target Java 17.
+     */
+    private static ExecutorService newExecutor(int concurrency) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            return Executors.newFixedThreadPool(concurrency);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create virtual thread executor", e);
+        }
+    }
+
+    private static Task newTask(String description) {
+        Task task = new Task();
+        task.description = description;
+        return task;
+    }
+
+    private static Author newAuthor(String name) {
+        Author author = new Author();
+        author.name = name;
+        return author;
+    }
+
+    private static Counter newCounter(String name) {
+        Counter counter = new Counter();
+        counter.name = name;
+        return counter;
+    }
+
+    private record LevelResult(int concurrency, long elapsedNanos, LatencyHistogram latency,
+                               Map<String, Long> errors, Map<String, Throwable> unexpectedErrors) {
+    }
+}
@@ -1,15 +1,32 @@
 package ee.hiberspike.test;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
+import ee.hiberspike.data.AsyncRepository;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.query.Page;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
@@ -18,6 +35,12 @@ class TaskRepositoryExtendedTest {
     @Inject
     TaskRepositoryExtended taskRepository;
 
+    @Inject
+    ReadingRepository readingRepository;
+
+    @Inject
+    EntityManagerFactory entityManagerFactory;
+
     @Test
     void find_returnsNull_whenIdDoesNotExist() {
         Task task = taskRepository.findBy(12345L);
@@ -43,4 +66,140 @@ class TaskRepositoryExtendedTest {
         assertFalse(task.isEmpty());
         assertEquals("Example task", task.get().description);
     }
-}
\ No newline at end of file
+
+    @Test
+    void parallelScan_visitsAllTasks() {
+        AtomicLong visited = new AtomicLong();
+        Set<Integer> donePartitions = ConcurrentHashMap.newKeySet();
+
+        long scanned = taskRepository.parallelScan(4, 10, ForkJoinPool.commonPool(),
+                chunk -> visited.addAndGet(chunk.size()),
+                (partition, partitions, rowsScanned, done) -> {
+                    if (done) {
+                        donePartitions.add(partition);
+                    }
+                });
+
+        assertEquals(taskRepository.count(), scanned);
+        assertEquals(scanned, visited.get());
+        assertEquals(Set.of(0, 1, 2, 3), donePartitions);
+    }
+
+    @Test
+    void parallelScan_visitsBoundaryIdsOfFullLongRange() {
+        List<Long> ids = List.of(Long.MIN_VALUE, 0L, Long.MAX_VALUE);
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (long id : ids) {
+                Reading reading = new Reading();
+                reading.id = id;
+                reading.label = "Reading " + id;
+                readingRepository.save(reading);
+            }
+        });
+        try {
+            Set<Long> visited = ConcurrentHashMap.newKeySet();
+
+            long scanned = readingRepository.parallelScan(4,
+                    chunk -> chunk.forEach(reading -> visited.add(reading.id)));
+
+            assertEquals(3, scanned);
+            assertEquals(Set.copyOf(ids), visited);
+        } finally {
+            QuarkusTransaction.requiringNew().run(() -> readingRepository.removeAllById(ids));
+        }
+    }
+
+    @Test
+    void parallelScan_rethrowsChunkHandlerFailure() {
+        AtomicInteger chunks = new AtomicInteger();
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> taskRepository.parallelScan(2, chunk -> {
+                    chunks.incrementAndGet();
+                    throw new IllegalStateException("Chunk handler failed");
+                }));
+
+        assertEquals("Chunk handler failed", failure.getMessage());
+        assertTrue(chunks.get() >= 1);
+    }
+
+    @Test
+    void asyncRepository_runsIndependentOperationsConcurrently() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            var tasks = new AsyncRepository<Task, Long, TaskRepositoryExtended>(
+                    entityManagerFactory, TaskRepositoryExtended_::new, executor, 2);
+            var newTask = new Task();
+            newTask.description = "Async task";
+
+            CompletableFuture<Task> saved = tasks.save(newTask);
+            try {
+                CompletableFuture<Task> found = tasks.findBy(1L);
+                CompletableFuture<List<Task>> page = tasks.findAll(Page.first(1));
+                CompletableFuture<Long> count = saved.thenCompose(task -> tasks.count());
+
+                assertTrue(saved.join().id > 0);
+                assertEquals("Example task", found.join().description);
+                assertEquals(1, page.join().size());
+                assertTrue(count.join() >= 2);
+            } finally {
+                saved.thenCompose(task -> tasks.supply(repository -> repository.removeById(task.id))).join();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void asyncRepository_capsConcurrentOperationsWithSemaphore() throws InterruptedException {
+        int maxConcurrency = 2;
+        int operations = 6;
+        ExecutorService executor = Executors.newFixedThreadPool(operations);
+        try {
+            var tasks = new AsyncRepository<Task, Long, TaskRepositoryExtended>(
+                    entityManagerFactory, TaskRepositoryExtended_::new, executor, maxConcurrency);
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+            CountDownLatch started = new CountDownLatch(maxConcurrency);
+            CountDownLatch release = new CountDownLatch(1);
+
+            List<CompletableFuture<Task>> futures = new ArrayList<>();
+            for (int i = 0; i < operations; i++) {
+                futures.add(tasks.supply(repository -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        started.countDown();
+                        await(release);
+                        return repository.findBy(1L);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                }));
+            }
+
+            // maxConcurrency operations block at the same time, the others wait for a permit
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            Thread.sleep(200);
+            assertEquals(maxConcurrency, inFlight.get());
+
+            release.countDown();
+            for (CompletableFuture<Task> future : futures) {
+                assertEquals("Example task", future.join().description);
+            }
+            assertEquals(maxConcurrency, maxInFlight.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for the latch");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -18,25 +18,73 @@
  */
 package org.apache.deltaspike.data.impl.handler;
 
+import ee.hiberspike.data.NearCache;
+import ee.hiberspike.data.RepositoryOperationEvent;
+import ee.hiberspike.data.monitoring.InMemoryRepositoryMetrics;
+import ee.hiberspike.data.monitoring.MethodMetrics;
+import ee.hiberspike.data.monitoring.RepositoryMonitor;
+import ee.hiberspike.data.monitoring.SlowQueryLog;
+import ee.hiberspike.data.monitoring.SqlCapture;
+import ee.hiberspike.data.monitoring.testing.StatementCounts;
+import ee.hiberspike.test.Author;
+import ee.hiberspike.test.Task;
+import ee.hiberspike.test.TaskRepositoryExtended;
 import io.quarkus.test.TestTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManager;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.apache.deltaspike.data.test.domain.Simple;
 import org.apache.deltaspike.data.test.domain.SimpleStringId;
+import org.apache.deltaspike.data.test.domain.SimpleSummary;
 import org.apache.deltaspike.data.test.service.ExtendedRepositoryInterface;
+import org.apache.deltaspike.data.test.service.SimpleBatchRepository;
+import org.apache.deltaspike.data.test.service.SimpleCachedCountRepository;
+import org.apache.deltaspike.data.test.service.SimpleEstimatedCountRepository;
+import org.apache.deltaspike.data.test.service.SimpleExpiredCountRepository;
 import org.apache.deltaspike.data.test.service.SimpleIntermediateRepository;
+import org.apache.deltaspike.data.test.service.SimpleNearCacheRepository;
 import org.apache.deltaspike.data.test.service.SimpleStringIdRepository;
 import org.apache.deltaspike.data.test.util.TestData;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.KeyedResultList;
+import org.hibernate.query.Page;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static ee.hiberspike.data.monitoring.testing.SqlStatementAssertions.assertSelects;
+import static ee.hiberspike.data.monitoring.testing.SqlStatementAssertions.assertStatements;
+import static ee.hiberspike.data.monitoring.testing.SqlStatementAssertions.countStatements;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 @TestTransaction
@@ -51,6 +99,24 @@ public class EntityRepositoryHandlerTest {
     @Inject
     SimpleIntermediateRepository intermediate;
 
+    @Inject
+    SimpleCachedCountRepository cachedCountRepo;
+
+    @Inject
+    SimpleEstimatedCountRepository estimatedCountRepo;
+
+    @Inject
+    SimpleNearCacheRepository nearCacheRepo;
+
+    @Inject
+    SimpleExpiredCountRepository expiredCountRepo;
+
+    @Inject
+    SimpleBatchRepository batchRepo;
+
+    @Inject
+    TaskRepositoryExtended taskRepo;
+
     @Inject
     EntityManager entityManager;
 
@@ -105,6 +171,35 @@ public class EntityRepositoryHandlerTest {
         assertEquals(simple.getId(), fetch.getId());
     }
 
+    @Test
+    public void should_save_all() {
+        // given
+        Simple existing = testData.createSimple("testSaveAllExisting");
+        entityManager.detach(existing);
+        existing.setName("testSaveAllExistingUpdated");
+
+        // when
+        List<Simple> saved = repo.saveAll(List.of(new Simple("testSaveAll1"), existing));
+
+        // then
+        assertEquals(2, saved.size());
+        assertNotNull(saved.get(0).getId());
+        assertEquals(existing.getId(), saved.get(1).getId());
+        assertEquals(Long.valueOf(2), repo.count());
+    }
+
+    @Test
+    public void should_save_all_stream_in_chunks() {
+        // when
+        List<Long> ids = repo.saveAll(IntStream.range(0, 7).mapToObj(i -> new Simple("testSaveAllStream" + i)), 3);
+
+        // then
+        assertEquals(7, ids.size());
+        assertEquals(7, ids.stream().distinct().count());
+        assertEquals(Long.valueOf(7), repo.count());
+        assertNotNull(entityManager.find(Simple.class, ids.get(6)));
+    }
+
     @Test
     public void should_save_with_string_id() {
         // given
@@ -117,6 +212,57 @@ public class EntityRepositoryHandlerTest {
         assertNotNull(foo);
     }
 
+    @Test
+    public void should_upsert_new_entity() {
+        // when
+        stringIdRepo.upsert(new SimpleStringId("upsertNew", "bar"));
+
+        // then
+        assertEquals("bar", entityManager.find(SimpleStringId.class, "upsertNew").getName());
+    }
+
+    @Test
+    public void should_upsert_with_fewer_statements_than_merge() {
+        // given
+        stringIdRepo.saveAndFlush(new SimpleStringId("upsert", "initial"));
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        // when
+        statistics.clear();
+        stringIdRepo.saveAndFlush(new SimpleStringId("upsert", "merged"));
+        long mergeStatements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+
+        statistics.clear();
+        stringIdRepo.upsertAll(List.of(new SimpleStringId("upsert", "upserted")));
+        long upsertStatements = statistics.getPrepareStatementCount();
+
+        // then
+        assertEquals(2, mergeStatements);
+        assertEquals(1, upsertStatements);
+        assertEquals("upserted", entityManager.find(SimpleStringId.class, "upsert").getName());
+    }
+
+    @Test
+    public void should_load_read_only_entities() {
+        // given
+        Simple simple = testData.createSimple("testReadOnly");
+        entityManager.clear();
+
+        // when
+        Simple found = repo.readOnly(() -> repo.findBy(simple.getId()));
+        Simple foundByName = repo.readOnly(ExtendedRepositoryInterface.class).findByName("testReadOnly");
+        found.setName("testReadOnlyChanged");
+        repo.flush();
+        entityManager.clear();
+
+        // then
+        Session session = entityManager.unwrap(Session.class);
+        assertFalse(session.isDefaultReadOnly());
+        assertSame(found, foundByName);
+        assertEquals("testReadOnly", repo.findBy(simple.getId()).getName());
+    }
 
     @Test
     public void should_refresh() throws Exception {
@@ -138,12 +284,133 @@ public class EntityRepositoryHandlerTest {
         Simple simple = testData.createSimple("testFindByPk");
 
         // when
-        Simple find = repo.findBy(simple.getId());
+        Simple find = assertSelects(0, () -> repo.findBy(simple.getId()));
 
         // then
         assertEquals(simple.getName(), find.getName());
     }
 
+    @Test
+    public void should_find_by_pk_and_all_with_entity_graph() {
+        // given
+        Simple simple1 = testData.createSimple("testEntityGraph1");
+        testData.createSimple("testEntityGraph2");
+        entityManager.clear();
+        EntityGraph<Simple> graph = entityManager.createEntityGraph(Simple.class);
+        graph.addAttributeNodes("embedded");
+
+        // when
+        Simple found = repo.findBy(simple1.getId(), graph);
+        List<Simple> all = repo.findAll(graph);
+        List<Simple> page = repo.findAll(Page.first(1), graph);
+
+        // then
+        assertEquals("testEntityGraph1", found.getName());
+        assertEquals(2, all.size());
+        assertEquals(List.of(found), page);
+    }
+
+    @Test
+    public void should_fetch_association_with_entity_graph() {
+        // given
+        Task task = createTaskWithAuthor("testEntityGraphAuthor");
+        EntityGraph<Task> graph = entityManager.createEntityGraph(Task.class);
+        graph.addAttributeNodes("author");
+
+        // when
+        Task found = assertStatements(1, 0, 0, 0, () -> {
+            Task loaded = taskRepo.findBy(task.id, graph);
+            Hibernate.initialize(loaded.author);
+            return loaded;
+        });
+
+        // then
+        assertTrue(Hibernate.isInitialized(found.author));
+    }
+
+    @Test
+    public void should_fetch_association_with_fetch_profile() {
+        // given
+        Task task = createTaskWithAuthor("testFetchProfileAuthor");
+
+        // when
+        Task found = assertStatements(1, 0, 0, 0, () -> taskRepo.withFetchProfile("task-with-author", () -> {
+            Task loaded = taskRepo.findBy(task.id);
+            Hibernate.initialize(loaded.author);
+            return loaded;
+        }));
+
+        // then
+        assertTrue(Hibernate.isInitialized(found.author));
+        assertFalse(entityManager.unwrap(Session.class).isFetchProfileEnabled("task-with-author"));
+    }
+
+    @Test
+    public void should_find_by_pk_from_near_cache() {
+        // given
+        NearCache<Long, Simple> nearCache = nearCacheRepo.getNearCache();
+        nearCache.invalidateAll();
+        Simple simple = testData.createSimple("testNearCache");
+        entityManager.clear();
+        long hits = nearCache.getHitCount();
+        long misses = nearCache.getMissCount();
+
+        // when
+        Simple loaded = nearCacheRepo.findBy(simple.getId());
+        Simple cached = nearCacheRepo.findBy(simple.getId());
+
+        // then
+        assertEquals(hits + 1, nearCache.getHitCount());
+        assertEquals(misses + 1, nearCache.getMissCount());
+        assertNotSame(loaded, cached);
+        assertFalse(entityManager.contains(loaded));
+        assertFalse(entityManager.contains(cached));
+        assertEquals("testNearCache", cached.getName());
+        assertEquals(simple.getId(), cached.getId());
+    }
+
+    @Test
+    public void should_invalidate_near_cache_on_save() {
+        // given
+        NearCache<Long, Simple> nearCache = nearCacheRepo.getNearCache();
+        nearCache.invalidateAll();
+        Simple simple = testData.createSimple("testNearCacheInvalidation");
+        entityManager.clear();
+        nearCacheRepo.findBy(simple.getId());
+        entityManager.clear();
+
+        // when
+        Simple cached = nearCacheRepo.findBy(simple.getId());
+        cached.setName("testNearCacheInvalidationUpdated");
+        nearCacheRepo.saveAndFlush(cached);
+        entityManager.clear();
+
+        // then
+        assertEquals(0, nearCache.size());
+        assertEquals("testNearCacheInvalidationUpdated", nearCacheRepo.findBy(simple.getId()).getName());
+    }
+
+    @Test
+    public void should_remove_by_pk_with_events_from_near_cache_repository() {
+        // given
+        NearCache<Long, Simple> nearCache = nearCacheRepo.getNearCache();
+        nearCache.invalidateAll();
+        Simple simple = testData.createSimple("testNearCacheRemoveById");
+        entityManager.clear();
+        nearCacheRepo.findBy(simple.getId());
+        entityManager.clear();
+
+        // when
+        boolean removed = nearCacheRepo.removeById(simple.getId(), true);
+        entityManager.flush();
+        entityManager.clear();
+
+        // then
+        assertTrue(removed);
+        assertEquals(0, nearCache.size());
+        assertNull(nearCacheRepo.findBy(simple.getId()));
+    }
+
     @Test
     public void should_find__by_pk() throws Exception {
         // given
@@ -156,6 +423,46 @@ public class EntityRepositoryHandlerTest {
         assertEquals(simple.getName(), find.get().getName());
     }
 
+    @Test
+    public void should_find_all_by_id_in_given_order() {
+        // given
+        Simple simple1 = testData.createSimple("testFindAllById1");
+        Simple simple2 = testData.createSimple("testFindAllById2");
+        Simple simple3 = testData.createSimple("testFindAllById3");
+        entityManager.clear();
+
+        // when
+        List<Simple> found = assertSelects(1,
+                () -> repo.findAllById(List.of(simple3.getId(), -1L, simple1.getId())));
+        Map<Long, Simple> foundById = repo.findAllByIdAsMap(List.of(simple2.getId(), simple1.getId()));
+
+        // then
+        assertEquals(List.of(simple3.getId(), simple1.getId()), found.stream().map(Simple::getId).toList());
+        assertEquals(List.of(simple2.getId(), simple1.getId()), List.copyOf(foundById.keySet()));
+        assertEquals("testFindAllById2", foundById.get(simple2.getId()).getName());
+    }
+
+    @Test
+    public void should_check_existence_by_id() {
+        // given
+        Simple managed = testData.createSimple("testExistsById1");
+        Simple unmanaged = testData.createSimple("testExistsById2");
+        entityManager.detach(unmanaged);
+
+        // when
+        boolean managedExists = repo.existsById(managed.getId());
+        boolean unmanagedExists = repo.existsById(unmanaged.getId());
+        boolean missingExists = repo.existsById(-1L);
+        Set<Long> existingIds = repo.existingIds(List.of(managed.getId(), unmanaged.getId(), -1L));
+
+        // then
+        assertTrue(managedExists);
+        assertTrue(unmanagedExists);
+        assertFalse(missingExists);
+        assertEquals(Set.of(managed.getId(), unmanaged.getId()), existingIds);
+        assertFalse(entityManager.contains(unmanaged));
+    }
+
     @Test
     public void should_find_all() {
         // given
@@ -163,7 +470,7 @@ public class EntityRepositoryHandlerTest {
         testData.createSimple("testFindAll2");
 
         // when
-        List<Simple> find = repo.findAll();
+        List<Simple> find = assertSelects(1, () -> repo.findAll());
 
         // then
         assertEquals(2, find.size());
@@ -176,24 +483,128 @@ public class EntityRepositoryHandlerTest {
         testData.createSimple("testFindAll2");
 
         // when
-        List<Simple> find = repo.findAll(0, 1);
+        List<Simple> find = assertSelects(1, () -> repo.findAll(0, 1));
 
         // then
         assertEquals(1, find.size());
     }
 
+    @Test
+    public void should_find_all_with_keyed_pages() {
+        // given
+        List<Long> ids = repo.saveAll(IntStream.range(0, 5).mapToObj(i -> new Simple("testKeyedPage" + i)), 5);
+
+        // when
+        KeyedResultList<Simple> first = repo.findAll(repo.firstKeyedPage(2));
+        KeyedResultList<Simple> second = repo.findAll(first.getNextPage());
+        KeyedResultList<Simple> third = repo.findAll(second.getNextPage());
+
+        // then
+        assertEquals(ids.subList(0, 2), first.getResultList().stream().map(Simple::getId).toList());
+        assertEquals(ids.subList(2, 4), second.getResultList().stream().map(Simple::getId).toList());
+        assertEquals(ids.subList(4, 5), third.getResultList().stream().map(Simple::getId).toList());
+        assertFalse(first.isLastPage());
+        assertTrue(third.isLastPage());
+    }
+
+    @Test
+    public void should_stream_all_without_growing_persistence_context() {
+        // given
+        int rows = 2_000;
+        repo.saveAll(IntStream.range(0, rows).mapToObj(i -> new Simple("testStreamAll" + i)), 500);
+        Session session = entityManager.unwrap(Session.class);
+
+        // when
+        long streamed;
+        int maxManagedEntities;
+        try (Stream<Simple> stream = repo.streamAll(50)) {
+            int[] max = {0};
+            streamed = stream
+                    .peek(simple -> max[0] = Math.max(max[0], session.getStatistics().getEntityCount()))
+                    .count();
+            maxManagedEntities = max[0];
+        }
+
+        // then
+        assertEquals(rows, streamed);
+        assertEquals(0, maxManagedEntities);
+    }
+
+    @Test
+    public void should_find_all_projected_to_record() {
+        // given
+        Simple simple1 = testData.createSimple("testProjection1");
+        Simple simple2 = testData.createSimple("testProjection2");
+        entityManager.clear();
+
+        // when
+        List<SimpleSummary> all = repo.findAll(SimpleSummary.class);
+        List<SimpleSummary> page = repo.findAll(SimpleSummary.class, Page.page(1, 1));
+
+        // then
+        assertEquals(2, all.size());
+        assertEquals(List.of(new SimpleSummary(simple2.getId(), "testProjection2", Boolean.TRUE)), page);
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
     @Test
     public void should_count_all() {
         // given
         testData.createSimple("testCountAll");
 
         // when
-        Long result = repo.count();
+        Long result = assertSelects(1, () -> repo.count());
 
         // then
         assertEquals(Long.valueOf(1), result);
     }
 
+    @Test
+    public void should_count_all_with_cached_strategy() {
+        // given
+        testData.createSimple("testCachedCount1");
+        Long initialCount = cachedCountRepo.count();
+
+        // when
+        testData.createSimple("testCachedCount2");
+        Long cachedCount = cachedCountRepo.count();
+
+        // then
+        assertEquals(initialCount, cachedCount);
+        assertEquals(initialCount + 1, repo.count());
+    }
+
+    @Test
+    public void should_cache_counts_per_repository() {
+        // given
+        testData.createSimple("testCachedCountPerRepository1");
+        Long cachedCount = cachedCountRepo.count();
+
+        // when
+        testData.createSimple("testCachedCountPerRepository2");
+
+        // then
+        assertEquals(cachedCount, cachedCountRepo.count());
+        assertEquals(repo.count(), expiredCountRepo.count());
+    }
+
+    @Test
+    public void should_count_all_with_estimated_strategy() {
+        // given
+        Long[] estimate = new Long[1];
+
+        // when
+        StatementCounts counts = countStatements(() -> estimate[0] = estimatedCountRepo.count());
+
+        // then
+        assertNotNull(estimate[0]);
+        assertTrue(estimate[0] >= 0);
+        // the statistics query answered, without falling back to select count(*)
+        assertEquals(1, counts.getSelects(), counts::toString);
+        assertTrue(counts.getStatements().get(0).toUpperCase(Locale.ROOT).contains("INFORMATION_SCHEMA.TABLES"),
+                counts::toString);
+    }
+
     @Test
     public void should_remove() {
         // given
@@ -236,6 +647,54 @@ public class EntityRepositoryHandlerTest {
         assertNull(lookup);
     }
 
+    @Test
+    public void should_remove_by_id() {
+        // given
+        Simple simple = testData.createSimple("testRemoveById");
+        Long id = simple.getId();
+
+        // when
+        boolean removed = assertStatements(0, 0, 0, 1, () -> repo.removeById(id));
+        boolean removedAgain = assertStatements(0, 0, 0, 1, () -> repo.removeById(id));
+
+        // then
+        assertTrue(removed);
+        assertFalse(removedAgain);
+        assertFalse(entityManager.contains(simple));
+        assertNull(entityManager.find(Simple.class, id));
+    }
+
+    @Test
+    public void should_remove_by_id_firing_events() {
+        // given
+        Simple simple = testData.createSimple("testRemoveByIdFiringEvents");
+        entityManager.clear();
+
+        // when
+        boolean removed = repo.removeById(simple.getId(), true);
+        repo.flush();
+
+        // then
+        assertTrue(removed);
+        assertNull(entityManager.find(Simple.class, simple.getId()));
+    }
+
+    @Test
+    public void should_remove_all_by_id() {
+        // given
+        Simple simple1 = testData.createSimple("testRemoveAllById1");
+        Simple simple2 = testData.createSimple("testRemoveAllById2");
+        testData.createSimple("testRemoveAllById3");
+        entityManager.clear();
+
+        // when
+        int removed = repo.removeAllById(List.of(simple1.getId(), simple2.getId(), -1L));
+
+        // then
+        assertEquals(2, removed);
+        assertEquals(Long.valueOf(1), repo.count());
+    }
+
     @Test
     public void should_return_entity_primary_key() {
         //given
@@ -277,6 +736,20 @@ public class EntityRepositoryHandlerTest {
         assertEquals(id, primaryKey);
     }
 
+    @Test
+    public void should_return_entity_primary_key_of_reference() {
+        //given
+        Simple simple = testData.createSimple("should_return_entity_primary_key_of_reference");
+        Long id = simple.getId();
+        entityManager.clear();
+
+        //when
+        Long primaryKey = repo.getPrimaryKey(entityManager.getReference(Simple.class, id));
+
+        // then
+        assertEquals(id, primaryKey);
+    }
+
     @Test
     public void should_query_with_hints() {
         Simple simple = testData.createSimple("should_return_entity_primary_key");
@@ -320,5 +793,187 @@ public class EntityRepositoryHandlerTest {
         assertEquals(1, byName.size());
         assertEquals(simple, byName.get(0));
     }
-}
 
+    @Test
+    public void should_record_repository_metrics() {
+        // given
+        testData.createSimple("should_record_repository_metrics_1");
+        testData.createSimple("should_record_repository_metrics_2");
+        InMemoryRepositoryMetrics metrics = new InMemoryRepositoryMetrics();
+        ExtendedRepositoryInterface monitored =
+                RepositoryMonitor.monitor(repo, ExtendedRepositoryInterface.class, metrics);
+
+        // when
+        List<Simple> all = monitored.findAll();
+        monitored.findByName("should_record_repository_metrics_1");
+        monitored.getEntityClass();
+
+        // then
+        MethodMetrics findAll = metrics.getMethodMetrics("ExtendedRepositoryInterface", "findAll");
+        assertEquals(1, findAll.getCalls());
+        assertEquals(all.size(), findAll.getRows());
+        assertEquals(0, findAll.getFailures());
+        assertTrue(findAll.getLatency().getValueAtPercentile(99, TimeUnit.NANOSECONDS) > 0);
+        assertEquals(1, metrics.getMethodMetrics("ExtendedRepositoryInterface", "findByName").getRows());
+        assertEquals(Set.of("ExtendedRepositoryInterface.findAll", "ExtendedRepositoryInterface.findByName"),
+                metrics.getAll().keySet());
+    }
+
+    @Test
+    public void should_capture_statements() {
+        // given
+        testData.createSimple("should_capture_statements");
+        entityManager.flush();
+
+        // when
+        List<String> statements;
+        try (SqlCapture capture = SqlCapture.start()) {
+            repo.findByName("should_capture_statements");
+            statements = capture.getStatements();
+        }
+
+        // then
+        assertEquals(1, statements.size());
+        assertTrue(statements.get(0).toLowerCase().contains("simple_table"));
+        assertFalse(SqlCapture.isActive());
+    }
+
+    @Test
+    public void should_log_slow_repository_calls() {
+        // given
+        testData.createSimple("should_log_slow_repository_calls");
+        List<String> messages = new CopyOnWriteArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                messages.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = Logger.getLogger("ee.hiberspike.data.SlowQueryLog");
+        ExtendedRepositoryInterface monitored = RepositoryMonitor.monitor(repo, ExtendedRepositoryInterface.class,
+                new InMemoryRepositoryMetrics());
+
+        // when
+        logger.addHandler(handler);
+        SlowQueryLog.setThreshold(Duration.ZERO);
+        try {
+            monitored.findByName("should_log_slow_repository_calls");
+        } finally {
+            SlowQueryLog.setThreshold(null);
+            logger.removeHandler(handler);
+        }
+
+        // then
+        assertEquals(1, messages.size());
+        String message = messages.get(0);
+        assertTrue(message.startsWith("Slow repository call ExtendedRepositoryInterface.findByName(?) took "));
+        assertTrue(message.contains("returned 1 row"));
+        assertTrue(message.toLowerCase().contains("simple_table"));
+        assertFalse(message.contains("should_log_slow_repository_calls"));
+    }
+
+    @Test
+    public void should_emit_flight_recorder_events() throws Exception {
+        // given
+        Path file = Files.createTempFile("repository-operations", ".jfr");
+
+        // when
+        try (Recording recording = new Recording()) {
+            recording.enable(RepositoryOperationEvent.NAME).withoutThreshold();
+            recording.start();
+            Simple simple = repo.save(new Simple("should_emit_flight_recorder_events"));
+            repo.flush();
+            repo.findBy(simple.getId());
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+
+        // then
+        assertEquals(List.of("persist", "flush", "find"),
+                events.stream().map(event -> event.getString("operation")).toList());
+        assertEquals(Simple.class.getName(), events.get(0).getClass("entityClass").getName());
+        assertEquals("findBy", events.get(2).getString("method"));
+        assertEquals(1, events.get(2).getInt("rows"));
+    }
+
+    @Test
+    public void should_merge_detached_entity_with_one_select_and_one_update() {
+        // given
+        Simple simple = testData.createSimple("testMergeDetached");
+        entityManager.detach(simple);
+        simple.setName("testMergeDetachedUpdated");
+
+        // when
+        Simple merged = assertStatements(1, 0, 1, 0, () -> repo.saveAndFlush(simple));
+
+        // then
+        assertEquals("testMergeDetachedUpdated", merged.getName());
+    }
+
+    @Test
+    public void should_flush_and_clear_when_persistence_context_exceeds_guard_limit() {
+        // given
+        entityManager.clear();
+        long flushAndClears = SimpleBatchRepository.GUARD.getFlushAndClearCount();
+
+        // when
+        Simple first = batchRepo.save(new Simple("testGuard1"));
+        batchRepo.save(new Simple("testGuard2"));
+        batchRepo.save(new Simple("testGuard3"));
+        int sizeAboveLimit = batchRepo.getPersistenceContextSize();
+        Simple fourth = batchRepo.save(new Simple("testGuard4"));
+
+        // then
+        assertEquals(3, sizeAboveLimit);
+        assertEquals(1, batchRepo.getPersistenceContextSize());
+        assertFalse(entityManager.contains(first));
+        assertTrue(entityManager.contains(fourth));
+        assertEquals(flushAndClears + 1, SimpleBatchRepository.GUARD.getFlushAndClearCount());
+        assertEquals(3, SimpleBatchRepository.GUARD.getPeakSize());
+        assertEquals(Long.valueOf(4), repo.count());
+    }
+
+    @Test
+    public void should_save_flush_and_refresh_when_guard_clears_persistence_context() {
+        // given
+        entityManager.clear();
+        long flushAndClears = SimpleBatchRepository.GUARD.getFlushAndClearCount();
+        batchRepo.save(new Simple("testGuardRefresh1"));
+        batchRepo.save(new Simple("testGuardRefresh2"));
+        batchRepo.save(new Simple("testGuardRefresh3"));
+
+        // when
+        Simple refreshed = batchRepo.saveAndFlushAndRefresh(new Simple("testGuardRefresh4"));
+
+        // then
+        assertEquals(flushAndClears + 1, SimpleBatchRepository.GUARD.getFlushAndClearCount());
+        assertTrue(entityManager.contains(refreshed));
+        assertNotNull(refreshed.getId());
+        assertEquals("testGuardRefresh4", refreshed.getName());
+        assertEquals(Long.valueOf(4), repo.count());
+    }
+
+    private Task createTaskWithAuthor(String name) {
+        Author author = new Author();
+        author.name = name;
+        entityManager.persist(author);
+        Task task = new Task();
+        task.description = "Task of " + name;
+        task.author = author;
+        entityManager.persist(task);
+        entityManager.flush();
+        entityManager.clear();
+        return task;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.wildfly.guide.testing.data;
+
+import java.time.Instant;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.inject.spi.Extension;
+import jakarta.inject.Inject;
+
+import ee.hiberspike.data.monitoring.CapturingStatementInspector;
+import ee.hiberspike.data.monitoring.InMemoryRepositoryMetrics;
+import ee.hiberspike.data.monitoring.LatencyHistogram;
+import ee.hiberspike.data.monitoring.MethodMetrics;
+import ee.hiberspike.data.monitoring.Monitored;
+import ee.hiberspike.data.monitoring.MonitoringExtension;
+import ee.hiberspike.data.monitoring.MonitoringInterceptor;
+import ee.hiberspike.data.monitoring.RepositoryMetrics;
+import ee.hiberspike.data.monitoring.RepositoryMonitor;
+import ee.hiberspike.data.monitoring.SlowQueryLog;
+import ee.hiberspike.data.monitoring.SqlCapture;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit5.container.annotation.ArquillianTest;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.wildfly.guide.testing.model.Priority;
+import org.wildfly.guide.testing.model.Task;
+
+/**
+ * Tests that the {@link MonitoringExtension} adds the {@link Monitored} binding to the generated {@link TaskRegistry}
+ * implementation, so that its calls are recorded by the {@link MonitoringInterceptor}.
+ */
+@ArquillianTest
+@RequestScoped
+public class MonitoringExtensionTest {
+
+    private static final String REPOSITORY = "TaskRegistry";
+
+    @Inject
+    private TaskRegistry taskRegistry;
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class)
+                .addClasses(TaskRegistry.class,
+                        Priority.class,
+                        Task.class)
+                // The repository monitoring, enabled with the portable extension
+                .addClasses(MonitoringExtension.class,
+                        Monitored.class,
+                        MonitoringInterceptor.class,
+                        RepositoryMonitor.class,
+                        RepositoryMetrics.class,
+                        InMemoryRepositoryMetrics.class,
+                        MethodMetrics.class,
+                        LatencyHistogram.class,
+                        SlowQueryLog.class,
+                        SqlCapture.class,
+                        CapturingStatementInspector.class)
+                .addAsServiceProvider(Extension.class, MonitoringExtension.class)
+                .addAsResource("META-INF/persistence.xml")
+                .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
+    }
+
+    @Test
+    public void recordsRepositoryCall() {
+        final MethodMetrics getTasks = metrics("getTasks");
+        final long calls = getTasks.getCalls();
+
+        taskRegistry.getTasks();
+
+        Assertions.assertEquals(calls + 1, getTasks.getCalls());
+    }
+
+    @Test
+    public void recordsSelfInvocationOnlyAsOuterCall() {
+        final long addCalls = metrics("add").getCalls();
+        final long saveCalls = metrics("save").getCalls();
+        final Task task = new Task();
+        task.setAdded(Instant.now());
+        task.setDescription("This is a monitored test task");
+        task.setPriority(Priority.IMPORTANT);
+        task.setSummary("Monitored task summary");
+
+        // add() calls save() on the same repository instance
+        taskRegistry.add(task);
+
+        Assertions.assertEquals(addCalls + 1, metrics("add").getCalls());
+        Assertions.assertEquals(saveCalls, metrics("save").getCalls());
+    }
+
+    private static MethodMetrics metrics(final String method) {
+        return InMemoryRepositoryMetrics.getInstance().getMethodMetrics(REPOSITORY, method);
+    }
+}
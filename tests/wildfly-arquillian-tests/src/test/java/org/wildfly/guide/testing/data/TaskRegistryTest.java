@@ -11,6 +11,10 @@ import java.time.Instant;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 
+import ee.hiberspike.data.monitoring.CapturingStatementInspector;
+import ee.hiberspike.data.monitoring.SqlCapture;
+import ee.hiberspike.data.monitoring.testing.SqlStatementAssertions;
+import ee.hiberspike.data.monitoring.testing.StatementCounts;
 import org.jboss.arquillian.container.test.api.Deployment;
 import org.jboss.arquillian.junit5.container.annotation.ArquillianTest;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
@@ -46,6 +50,11 @@ public class TaskRegistryTest {
                 .addClasses(TaskRegistry.class,
                         Priority.class,
                         Task.class)
+                // The statement inspector registered in persistence.xml and the statement count assertions
+                .addClasses(CapturingStatementInspector.class,
+                        SqlCapture.class,
+                        SqlStatementAssertions.class,
+                        StatementCounts.class)
                 .addAsResource("META-INF/persistence.xml")
                 .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
     }
@@ -131,4 +140,11 @@ public class TaskRegistryTest {
         final var openTasks = taskRegistry.getTasks(false);
         Assertions.assertEquals(1, openTasks.size(), () -> String.format("Expected 1 open tasks in %s", openTasks));
     }
+
+    @Test
+    @Order(7)
+    public void queryTasksWithOneSelect() {
+        final var openTasks = SqlStatementAssertions.assertSelects(1, () -> taskRegistry.getTasks(false));
+        Assertions.assertEquals(1, openTasks.size(), () -> String.format("Expected 1 open tasks in %s", openTasks));
+    }
 }